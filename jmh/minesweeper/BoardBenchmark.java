@@ -0,0 +1,168 @@
+package minesweeper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the hot paths of the board model: mine generation, the reveal cascade,
+ * end-of-game evaluation and restarting a game, on the three difficulties and larger custom
+ * boards. All layouts come from fixed seeds so runs are comparable.
+ * <p>
+ * Benchmarks that play on a fresh board put it back in its generated state themselves: a
+ * per-invocation setup would cost about as much as the microsecond-long calls it prepares for.
+ * Their scores therefore include the reset; subtract the {@link #resetBoard} score of the same
+ * board to get the cost of the benchmarked operation alone.
+ * <p>
+ * Compile against the game classes and JMH, then run {@link #main(String[])}; it attaches the
+ * GC profiler so allocation rate is reported next to the time per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    private static final long SEED = 42;
+
+    /**
+     * A board configuration and its mine layout.
+     */
+    @State(Scope.Thread)
+    public static class Layout {
+        /**
+         * Board as "size/mines"; the first three are EASY, MEDIUM and HARD.
+         */
+        @Param({"10/10", "16/40", "20/70", "100/1000", "100/2500", "1000/100000", "1000/200000"})
+        public String board;
+
+        int size;
+        int mines;
+        int safeIndex;
+        int[] mineCells;    // Mines of the benchmarked board
+        int[] safeCells;    // Every cell without a mine
+        long seed;  // Advanced by the generation benchmarks so each call draws a new layout
+        BoardModel model;   // Board the generation benchmarks write to
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            String[] parts = this.board.split("/");
+            this.size = Integer.parseInt(parts[0]);
+            this.mines = Integer.parseInt(parts[1]);
+            this.safeIndex = this.size * this.size / 2 + this.size / 2;
+            this.mineCells = MinePlacer.place(this.size, this.size, this.mines, this.safeIndex, SEED);
+            this.seed = SEED;
+
+            this.model = new BoardModel(this.size, this.size, this.mines);
+            this.model.placeMines(this.mineCells);
+            IntList safe = new IntList();
+            for (int i = 0; i < this.model.getCells(); i++) {
+                if (!this.model.hasMine(i)) {
+                    safe.add(i);
+                }
+            }
+            this.safeCells = safe.toArray();
+        }
+    }
+
+    /**
+     * A board with the layout's mines, which the benchmarks put back in its freshly generated
+     * state with {@link #reset} before playing on it.
+     */
+    @State(Scope.Thread)
+    public static class FreshBoard {
+        BoardModel model;
+        FloodFill floodFill;
+        int[] mineCells;
+
+        @Setup(Level.Trial)
+        public void setUp(Layout layout) {
+            this.model = new BoardModel(layout.size, layout.size, layout.mines);
+            this.floodFill = new FloodFill(this.model);
+            this.mineCells = layout.mineCells;
+        }
+
+        void reset() {
+            this.model.reset();
+            this.model.placeMines(this.mineCells);
+        }
+    }
+
+    /**
+     * Board.generateMines(): sample the mines and compute neighbor counts.
+     */
+    @Benchmark
+    public BoardModel generateMines(Layout layout) {
+        layout.model.placeMines(MinePlacer.place(layout.size, layout.size, layout.mines, layout.safeIndex,
+                layout.seed++));
+        return layout.model;
+    }
+
+    /**
+     * Baseline for the benchmarks on a fresh board: only puts the board back in its generated state.
+     */
+    @Benchmark
+    public BoardModel resetBoard(FreshBoard board) {
+        board.reset();
+        return board.model;
+    }
+
+    /**
+     * Board.revealCell() on the safe tile: the flood-fill cascade that replaced revealNeighbors().
+     */
+    @Benchmark
+    public int revealCascade(Layout layout, FreshBoard board) {
+        board.reset();
+        return board.floodFill.open(layout.safeIndex).size();
+    }
+
+    /**
+     * Reveals every safe cell one at a time and checks the game state after each, as
+     * checkWin()/checkLoss() did after every revealed cell.
+     */
+    @Benchmark
+    public int endOfGameChecks(Layout layout, FreshBoard board) {
+        board.reset();
+        int state = BoardModel.IN_PROGRESS;
+        for (int cell : layout.safeCells) {
+            board.model.reveal(cell);
+            state = board.model.getState();
+        }
+        return state;
+    }
+
+    /**
+     * The model side of Board.restartGame(): clear the board and generate a new layout.
+     */
+    @Benchmark
+    public BoardModel restartGame(Layout layout) {
+        layout.model.reset();
+        layout.model.placeMines(MinePlacer.place(layout.size, layout.size, layout.mines, layout.safeIndex,
+                layout.seed++));
+        return layout.model;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BoardBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,87 @@
+package minesweeper;
+
+/**
+ * Plays a board headlessly with the {@link Solver}: reveals every cell proven safe and flags
+ * every proven mine until the game is won or no rule applies any more.
+ */
+public class AutoPlayer {
+    private final BoardModel model;
+    private final FloodFill floodFill;
+    private final Solver solver;
+
+    /**
+     * Constructs an auto-player for the given board.
+     *
+     * @param model The board to play.
+     */
+    public AutoPlayer(BoardModel model) {
+        this.model = model;
+        this.floodFill = new FloodFill(model);
+        this.solver = new Solver(model);
+    }
+
+    /**
+     * Opens the start cell, then applies the solver's deductions until it gets stuck.
+     *
+     * @param start The index of the first cell to open, normally the safe tile.
+     * @return The game state when play stopped: WON, LOST, or IN_PROGRESS if a guess is needed.
+     */
+    public int play(int start) {
+        this.solver.reset();
+        this.open(start);
+        return this.playDeductions();
+    }
+
+    /**
+     * Applies the solver's deductions to the board as it is now, until it gets stuck.
+     *
+     * @return The game state when play stopped: WON, LOST, or IN_PROGRESS if a guess is needed.
+     */
+    public int playDeductions() {
+        while (this.model.getState() == BoardModel.IN_PROGRESS && this.solver.solve()) {
+            IntList mines = this.solver.getMineCells();
+            for (int i = 0; i < mines.size(); i++) {
+                this.model.setFlagged(mines.get(i), true);
+            }
+
+            // Copy the safe cells out: opening them queues new work on the solver
+            int[] safe = this.solver.getSafeCells().toArray();
+            this.solver.clearDeductions();
+            for (int cell : safe) {
+                this.open(cell);
+            }
+        }
+        return this.model.getState();
+    }
+
+    /**
+     * Checks whether a board can be won from the start cell without guessing.
+     * The board is played, so its revealed and flagged state changes.
+     *
+     * @param model The board, with mines placed and nothing revealed.
+     * @param start The index of the first cell to open.
+     * @return True if the solver wins the game.
+     */
+    public static boolean isSolvable(BoardModel model, int start) {
+        return new AutoPlayer(model).play(start) == BoardModel.WON;
+    }
+
+    /**
+     * Opens a cell, e.g. a guess, and tells the solver what was revealed.
+     *
+     * @param cell The index of the cell to open.
+     * @return The number of cells opened.
+     */
+    public int open(int cell) {
+        if (this.model.isRevealed(cell)) {
+            return 0;
+        }
+        IntList opened = this.floodFill.open(cell);
+        this.solver.cellsRevealed(opened);
+        return opened.size();
+    }
+
+    public Solver getSolver() {
+        return this.solver;
+    }
+}
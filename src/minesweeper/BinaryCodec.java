@@ -0,0 +1,171 @@
+package minesweeper;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Compact binary encodings shared by the replay and save files: LEB128 varints, zigzag for
+ * signed values, and run-length encoded bitsets.
+ */
+final class BinaryCodec {
+
+    private BinaryCodec() {
+    }
+
+    /**
+     * Maps a signed value to an unsigned one so small negative numbers stay short as varints.
+     */
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads an unsigned varint.
+     *
+     * @param in The buffer to read from.
+     * @return The decoded value.
+     */
+    static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    static int getVarInt(ByteBuffer in) {
+        return (int) getVarLong(in);
+    }
+
+    /**
+     * Reads a run-length encoded bitset written by {@link Output#putBits(long[], int)}.
+     *
+     * @param in    The buffer to read from.
+     * @param words The bitset to fill; it is cleared first.
+     * @param bits  The number of bits encoded.
+     */
+    static void getBits(ByteBuffer in, long[] words, int bits) {
+        Arrays.fill(words, 0L);
+        int i = 0;
+        boolean set = false;
+        while (i < bits) {
+            int run = getVarInt(in);
+            if (set) {
+                setRange(words, i, i + run);
+            }
+            i += run;
+            set = !set;
+        }
+    }
+
+    private static void setRange(long[] words, int from, int to) {
+        for (int i = from; i < to; ) {
+            int w = i >>> 6;
+            int end = Math.min(to, (w + 1) << 6);
+            long mask = (end - i == 64) ? -1L : ((1L << (end - i)) - 1) << i;
+            words[w] |= mask;
+            i = end;
+        }
+    }
+
+    /**
+     * A growable byte buffer for building records before they are written.
+     */
+    static final class Output {
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        void putByte(int value) {
+            this.ensure(1);
+            this.bytes[this.size++] = (byte) value;
+        }
+
+        void putInt(int value) {
+            this.ensure(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                this.bytes[this.size++] = (byte) (value >>> shift);
+            }
+        }
+
+        void putLong(long value) {
+            this.putInt((int) (value >>> 32));
+            this.putInt((int) value);
+        }
+
+        /**
+         * Writes an unsigned varint: 7 bits per byte, high bit set on all but the last byte.
+         */
+        void putVarLong(long value) {
+            this.ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                this.bytes[this.size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            this.bytes[this.size++] = (byte) value;
+        }
+
+        void putVarInt(int value) {
+            this.putVarLong(value & 0xFFFFFFFFL);
+        }
+
+        /**
+         * Writes a bitset as alternating run lengths of clear and set bits, starting with clear.
+         * Revealed regions and flags are clustered, so this is far smaller than the raw words.
+         *
+         * @param words The bitset.
+         * @param bits  The number of bits to encode.
+         */
+        void putBits(long[] words, int bits) {
+            int i = 0;
+            while (i < bits) {
+                int nextSet = Bits.nextSetBit(words, i);
+                int end = nextSet < 0 || nextSet > bits ? bits : nextSet;
+                this.putVarInt(end - i);
+                i = end;
+                if (i < bits) {
+                    end = Math.min(bits, Bits.nextClearBit(words, i));
+                    this.putVarInt(end - i);
+                    i = end;
+                }
+            }
+        }
+
+        /**
+         * Appends another buffer's bytes.
+         */
+        void putAll(Output other) {
+            this.ensure(other.size);
+            System.arraycopy(other.bytes, 0, this.bytes, this.size, other.size);
+            this.size += other.size;
+        }
+
+        int size() {
+            return this.size;
+        }
+
+        void clear() {
+            this.size = 0;
+        }
+
+        /**
+         * Wraps the written bytes for a channel write. The buffer is valid until the next put.
+         */
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(this.bytes, 0, this.size);
+        }
+
+        private void ensure(int extra) {
+            if (this.size + extra > this.bytes.length) {
+                this.bytes = Arrays.copyOf(this.bytes, Math.max(this.bytes.length << 1, this.size + extra));
+            }
+        }
+    }
+}
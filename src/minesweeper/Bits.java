@@ -0,0 +1,114 @@
+package minesweeper;
+
+/**
+ * Static helpers for the long[] bitsets used by the board model.
+ * Bit i lives in word i >>> 6, at position i & 63.
+ */
+final class Bits {
+
+    private Bits() {
+    }
+
+    /**
+     * Allocates a bitset large enough to hold the given number of bits.
+     *
+     * @param bits The number of bits.
+     * @return A zeroed bitset.
+     */
+    static long[] create(int bits) {
+        return new long[(bits + 63) >>> 6];
+    }
+
+    /**
+     * Checks whether a bit is set.
+     *
+     * @param words The bitset.
+     * @param i     The bit index.
+     * @return True if the bit is set, false otherwise.
+     */
+    static boolean get(long[] words, int i) {
+        return (words[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Sets a bit.
+     *
+     * @param words The bitset.
+     * @param i     The bit index.
+     */
+    static void set(long[] words, int i) {
+        words[i >>> 6] |= 1L << i;
+    }
+
+    /**
+     * Clears a bit.
+     *
+     * @param words The bitset.
+     * @param i     The bit index.
+     */
+    static void clear(long[] words, int i) {
+        words[i >>> 6] &= ~(1L << i);
+    }
+
+    /**
+     * Counts the set bits.
+     *
+     * @param words The bitset.
+     * @return The number of set bits.
+     */
+    static int count(long[] words) {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the index of the first set bit at or after the given index.
+     *
+     * @param words The bitset.
+     * @param from  The index to start searching from.
+     * @return The index of the next set bit, or -1 if there is none.
+     */
+    static int nextSetBit(long[] words, int from) {
+        int w = from >>> 6;
+        if (w >= words.length) {
+            return -1;
+        }
+        long word = words[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++w == words.length) {
+                return -1;
+            }
+            word = words[w];
+        }
+    }
+
+    /**
+     * Returns the index of the first clear bit at or after the given index.
+     *
+     * @param words The bitset.
+     * @param from  The index to start searching from.
+     * @return The index of the next clear bit; may be past the last bit in use.
+     */
+    static int nextClearBit(long[] words, int from) {
+        int w = from >>> 6;
+        if (w >= words.length) {
+            return from;
+        }
+        long word = ~words[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++w == words.length) {
+                return w << 6;
+            }
+            word = ~words[w];
+        }
+    }
+}
@@ -3,34 +3,70 @@ package minesweeper;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Cursor;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ToggleButton;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.scene.input.MouseButton;
+import javafx.scene.input.KeyCode;
 import javafx.scene.layout.BorderPane;
-import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.text.Font;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents the game board for Minesweeper.
+ * The board changes its model and reads the resulting {@link GameEvents} back to update the UI,
+ * like any other subscriber; the mines counter is drawn from the model's flag count.
  */
-public class Board {
+public class Board implements Closeable, GameEventListener {
+    public static final int CANVAS_THRESHOLD = 2500;  // Boards with more cells, such as Huge, are drawn on a canvas
+    private static final int EVENT_CAPACITY = 1 << 16;  // Events kept for slow subscribers; larger cascades redraw everything
+    public static final Path REPLAY_DIR = Paths.get(System.getProperty("user.home"), ".minesweeper", "replays");
+    // Replays kept in REPLAY_DIR, set with -Dminesweeper.maxReplays; 0, the default, keeps them all
+    public static final int MAX_REPLAYS = Integer.getInteger("minesweeper.maxReplays", 0);
+    public static final Path SAVE_FILE = REPLAY_DIR.resolveSibling("save.bin");
     private final int size;   // Size of the board
     private final int mines;  // Number of mines on the board
-    private int gameIsOn;   // Current game state
-    private final List<List<Cell>> buttons;   // Grid of cells representing the board
-    private final HashMap<String, Image> images;  // Images for different cell states
+    private final BoardModel model;   // Headless state of the board
+    private final FloodFill floodFill;    // Opens cells and cascades through empty regions
+    private final UndoHistory history;  // Actions of the current game that can be undone
+    private final BoardAnalyzer analyzer;   // 3BV, openings and islands of the current layout
+    private BoardView view;   // Renders the cells
+    private final Map<String, Image> images;  // Images for different cell states, shared by all boards
+    private final SpriteAtlas atlas;  // The cell and face images packed into one image, shared by all boards
 
     private final Label minesLabel;   // Label to display remaining mines count
     private final Label timerLabel;   // Label to display elapsed time
-    private int timerCount; // Counter for elapsed time
     private final Button btnImg;  // Button to restart the game
+    private final ImageView face;   // Graphic of the restart button
+    private final ToggleButton hintButton;  // Shows or hides the hints
+    private HintOverlay hints;  // Safe cells and mines the player could deduce, or null when hidden
 
+    private final boolean noGuess;  // Whether every board must be solvable without guessing
+    private CompletableFuture<BoardPool.Layout> pendingLayout;  // No-guess layout being generated, or null
     private int[] safeTile; // Coordinates of the safe tile
+    private long seed;  // Seed of the current mine layout
+    private ReplayWriter replay;    // Records the current game, or null if not started or recording failed
+    private boolean replayPending;  // Whether the replay is still to be created, on the first action
+    private boolean recorded;   // Whether the current game is already in the statistics
+
+    // Changes of the action in progress, read from the model's events and applied to the UI together by commit()
+    private final GameEvents events;    // Every change of the model, for the view and any other subscriber
+    private final GameEvents.Subscription viewEvents;   // The events this board has drawn so far
+    private final IntList dirty;    // Cells to redraw
+    private final long[] dirtyBits; // Cells already in dirty
+    private boolean dirtyAll;   // Whether every cell must be redrawn
+    private boolean ended;  // Whether the end of the current game is shown
 
     /**
      * Constructs a Minesweeper board with the specified size and number of mines.
@@ -39,20 +75,46 @@ public class Board {
      * @param mines The number of mines on the board.
      */
     public Board(int size, int mines) {
+        this(size, mines, false);
+    }
+
+    /**
+     * Constructs a Minesweeper board with the specified size and number of mines.
+     * In no-guess mode every layout can be cleared from the safe tile by logic alone; layouts are
+     * taken from the background {@link BoardPool}.
+     *
+     * @param size    The size of the board.
+     * @param mines   The number of mines on the board.
+     * @param noGuess True to only generate boards that can be solved without guessing.
+     */
+    public Board(int size, int mines, boolean noGuess) {
         this.size = size;
         this.mines = mines;
-        this.gameIsOn = 1;
-
-        this.buttons = new ArrayList<>();
-        this.images = new HashMap<>();
-        this.loadImages();
-
-        this.minesLabel = new Label(" 10");
-        this.timerLabel = new Label("0   ");
-        this.timerCount = 0;
+        this.model = new BoardModel(size, size, mines);
+        this.floodFill = new FloodFill(this.model);
+        this.history = new UndoHistory(this.model);
+        this.analyzer = new BoardAnalyzer();
+        this.events = new GameEvents(EVENT_CAPACITY);
+        this.model.setEvents(this.events);
+        this.viewEvents = this.events.subscribe();
+        this.dirty = new IntList();
+        this.dirtyBits = Bits.create(this.model.getCells());
+
+        this.images = ImageCache.getInstance().getImages();
+        this.atlas = ImageCache.getInstance().getAtlas();
+
+        this.minesLabel = new Label();
+        this.timerLabel = new Label("000");
         this.btnImg = new Button();
+        this.face = this.atlas.createView(SpriteAtlas.YELLOW);
+        this.hintButton = new ToggleButton("Hints");
+        this.updateMinesLabel();
 
         this.safeTile = new int[2];
+        this.noGuess = noGuess;
+        if (noGuess) {
+            BoardPool.getInstance().prefill(size, mines);
+        }
     }
 
     /**
@@ -61,42 +123,16 @@ public class Board {
      * @return The BorderPane containing the game board.
      */
     public BorderPane create_board() {
-        updateTimer();
+        startTimer();
 
         Random random = new Random();
         this.safeTile = new int[]{random.nextInt(size), random.nextInt(size)};
 
         BorderPane layout = new BorderPane();
-        GridPane grid = new GridPane();
-        grid.setHgap(2);
-        grid.setVgap(2);
-
-        for (int row = 0; row < size; row++) {
-            List<Cell> cellRow = new ArrayList<>();
-            for (int col = 0; col < size; col++) {
-                Cell cell = new Cell(this, row, col);
-                cellRow.add(cell);
-
-                // Set cell button size and graphics
-                cell.getBtn().setMaxSize(images.get("tile").getWidth(), images.get("tile").getHeight());
-                cell.getBtn().setMinSize(images.get("tile").getWidth(), images.get("tile").getHeight());
-                if (safeTile[0] == row && safeTile[1] == col) {
-                    cell.getBtn().setGraphic(new ImageView(images.get("safeTile")));
-                } else {
-                    cell.getBtn().setGraphic(new ImageView(images.get("tile")));
-                }
-
-                // Handle mouse clicks on cell buttons
-                cell.getBtn().setOnMouseClicked(e -> {
-                    if (e.getButton() == MouseButton.PRIMARY) {
-                        cell.revealCell();
-                    } else if (e.getButton() == MouseButton.SECONDARY) {
-                        cell.flag();
-                    }
-                });
-                grid.add(cell.getBtn(), row, col);
-            }
-            this.buttons.add(cellRow);
+        if (model.getCells() > CANVAS_THRESHOLD) {
+            this.view = new CanvasBoardView(this);
+        } else {
+            this.view = new GridBoardView(this);
         }
 
         // Create header with mines label, timer label and restart button
@@ -105,18 +141,21 @@ public class Board {
         HBox timerBox = new HBox();
 
         Label minesLabelImage = new Label();
-        minesLabelImage.setGraphic(new ImageView(images.get("bomb")));
+        minesLabelImage.setGraphic(this.atlas.createView(SpriteAtlas.BOMB));
         this.minesLabel.setFont(Font.font(20));
-        minesBox.getChildren().addAll(minesLabelImage, minesLabel);
+        this.hintButton.setFocusTraversable(false);
+        this.hintButton.setOnAction(e -> this.setHintsShown(this.hintButton.isSelected()));
+        minesBox.getChildren().addAll(minesLabelImage, minesLabel, this.hintButton);
+        HBox.setMargin(this.hintButton, new Insets(0, 0, 0, 10));
 
         Label timerLabelImage = new Label();
-        timerLabelImage.setGraphic(new ImageView(images.get("timer")));
+        timerLabelImage.setGraphic(this.atlas.createView(SpriteAtlas.TIMER));
         this.timerLabel.setFont(Font.font(20));
         timerBox.getChildren().addAll(timerLabel, timerLabelImage);
         HBox.setMargin(timerLabel, new Insets(0, 10, 0, 0));
 
 
-        this.btnImg.setGraphic(new ImageView(images.get("yellow")));
+        this.btnImg.setGraphic(this.face);
         this.btnImg.setMaxSize(images.get("yellow").getWidth(), images.get("yellow").getHeight());
         this.btnImg.setMinSize(images.get("yellow").getWidth(), images.get("yellow").getHeight());
         this.btnImg.setOnAction(e -> restartGame());
@@ -135,206 +174,551 @@ public class Board {
         BorderPane.setMargin(header, new Insets(5, 0, 5, 0));
 
         layout.setTop(header);
-        layout.setCenter(grid);
+        layout.setCenter(this.view.getNode());
+
+        // Ctrl+Z undoes the last reveal or flag, Ctrl+Y or Ctrl+Shift+Z redoes it, H toggles the hints
+        layout.setOnKeyPressed(e -> {
+            if (!e.isShortcutDown()) {
+                if (e.getCode() == KeyCode.H) {
+                    this.hintButton.setSelected(!this.hintButton.isSelected());
+                    this.setHintsShown(this.hintButton.isSelected());
+                    e.consume();
+                }
+                return;
+            }
+            if (e.getCode() == KeyCode.Z && !e.isShiftDown()) {
+                this.undo();
+            } else if (e.getCode() == KeyCode.Y || e.getCode() == KeyCode.Z) {
+                this.redo();
+            } else {
+                return;
+            }
+            e.consume();
+        });
 
         return layout;
     }
 
     /**
      * Randomly generates mines on the game board and update neighbor mine counts.
+     * A fresh seed is drawn for every board; see {@link #generateMines(long)}.
+     * In no-guess mode the layout and its safe tile come from the {@link BoardPool} instead. If
+     * none is ready, the board is shown as busy until one has been generated in the background.
+     * If the density leaves no no-guess board, a random layout is used and the player is told.
      */
     public void generateMines() {
-        List<int[]> minesGenerated = new ArrayList<>();
-        Random random = new Random();
+        long start = System.nanoTime();
+        if (this.pendingLayout != null) {
+            // Restarted while busy: the layout still being generated is no longer wanted
+            this.pendingLayout = null;
+            this.setBusy(false);
+        }
+        if (!this.noGuess) {
+            generateMines(new SplittableRandom().nextLong());
+            Metrics.getInstance().record(Metrics.GENERATE, start);
+            return;
+        }
 
-        // Generate mines until the specified number is reached
-        while (minesGenerated.size() < this.mines) {
-            int[] mine = {random.nextInt(size), random.nextInt(size)};
-            int[] rowRange = {this.safeTile[0] - 1, this.safeTile[0] + 2};
-            int[] colRange = {this.safeTile[1] - 1, this.safeTile[1] + 2};
-            boolean adjacentMine = false;
-
-            // Check if the mine is adjacent to the safe tile
-            for (int i = rowRange[0]; i < rowRange[1]; i++) {
-                for (int j = colRange[0]; j < colRange[1]; j++) {
-                    if (0 <= i && i < this.size && 0 <= j && j < this.size) {
-                        if (mine[0] == i && mine[1] == j) {
-                            adjacentMine = true;
-                            break;
-                        }
-                    }
-                }
-                if (adjacentMine) {
-                    break;
-                }
+        CompletableFuture<BoardPool.Layout> layout = BoardPool.getInstance().take(size, this.mines);
+        if (layout.isDone()) {
+            this.placeLayout(layout.getNow(null), start);
+            return;
+        }
+        this.pendingLayout = layout;
+        this.history.clear();
+        this.setBusy(true);
+        layout.whenCompleteAsync((ready, error) -> {
+            if (this.pendingLayout != layout) {
+                return;
             }
+            this.pendingLayout = null;
+            this.setBusy(false);
+            this.placeLayout(ready, start);
+            this.commit();
+        }, Platform::runLater);
+    }
 
-            // Check if the mine is already generated
-            boolean containsMine = false;
-            for (int[] existingMine : minesGenerated) {
-                if (Arrays.equals(existingMine, mine)) {
-                    containsMine = true;
-                    break;
-                }
-            }
+    /**
+     * Places a no-guess layout, or a random one if none was found.
+     */
+    private void placeLayout(BoardPool.Layout layout, long start) {
+        if (layout != null) {
+            this.moveSafeTile(layout.getSafeIndex());
+            generateMines(layout.getSeed());
+        } else {
+            generateMines(new SplittableRandom().nextLong());
+            this.showNoGuessFallback();
+        }
+        Metrics.getInstance().record(Metrics.GENERATE, start);
+    }
 
-            // Add the mine if it meets the conditions
-            if (!adjacentMine && !containsMine) {
-                minesGenerated.add(mine);
-            }
+    /**
+     * Greys out the cells and stops the clock while a layout is being generated, so no click
+     * reaches a board without mines and no time is counted against the player.
+     */
+    private void setBusy(boolean busy) {
+        if (this.view != null) {
+            this.view.getNode().setDisable(busy);
+            this.view.getNode().setCursor(busy ? Cursor.WAIT : Cursor.DEFAULT);
         }
+        if (busy) {
+            GameClock.getInstance().pause();
+        } else {
+            GameClock.getInstance().start();
+        }
+    }
 
-        // Place mines on the board and update neighboring cell counts
-        for (int[] mine : minesGenerated) {
-            int mineRow = mine[0];
-            int mineCol = mine[1];
-            this.buttons.get(mineRow).get(mineCol).setHasMine(true);
+    /**
+     * Tells the player that the board may need a guess after all.
+     */
+    private void showNoGuessFallback() {
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("No guessing");
+        alert.setHeaderText("This board may need a guess");
+        alert.setContentText("No layout that can be solved without guessing was found for " + size + "x" + size
+                + " with " + this.mines + " mines, so a random one is played instead.");
+        alert.show();
+    }
 
-            // Update neighboring cell counts
-            for (int i = mineRow - 1; i <= mineRow + 1; i++) {
-                for (int j = mineCol - 1; j <= mineCol + 1; j++) {
-                    if (0 <= i && i < this.size && 0 <= j && j < this.size) {
-                        this.buttons.get(i).get(j).incrementNeighborMineCount();
-                    }
-                }
+    /**
+     * Moves the safe tile and redraws its old and new cells.
+     */
+    private void moveSafeTile(int safeIndex) {
+        int oldIndex = this.model.index(this.safeTile[0], this.safeTile[1]);
+        this.safeTile = new int[]{safeIndex / size, safeIndex % size};
+        if (this.view != null) {
+            this.view.refreshCell(oldIndex);
+            this.view.refreshCell(safeIndex);
+        }
+    }
+
+    /**
+     * Generates mines from the given seed and update neighbor mine counts.
+     * The same seed and safe tile always produce the same board.
+     *
+     * @param seed The seed of the mine layout.
+     */
+    public void generateMines(long seed) {
+        this.seed = seed;
+        int safeIndex = this.model.index(this.safeTile[0], this.safeTile[1]);
+        this.model.placeMines(MinePlacer.place(size, size, this.mines, safeIndex, seed));
+        this.analyzer.analyze(this.model);
+        this.history.clear();
+        this.recorded = false;
+        this.ended = false;
+        this.startReplay();
+    }
+
+    /**
+     * Closes the previous game's replay and records the current one from its first action, so a
+     * board restarted without a move leaves no file behind.
+     */
+    private void startReplay() {
+        this.closeReplay();
+        this.replayPending = true;
+    }
+
+    /**
+     * Creates the replay file of the current game. When a limit is set with {@link #MAX_REPLAYS}, the
+     * oldest replays beyond it are deleted first. A board that cannot record is still playable; the
+     * failure is reported once.
+     */
+    private void openReplay() {
+        this.replayPending = false;
+        try {
+            Files.createDirectories(REPLAY_DIR);
+            if (MAX_REPLAYS > 0) {
+                ReplayWriter.prune(REPLAY_DIR, MAX_REPLAYS - 1);
             }
+            Path file = REPLAY_DIR.resolve(System.currentTimeMillis() + "-" + Long.toHexString(this.seed) + ".msr");
+            int safeIndex = this.model.index(this.safeTile[0], this.safeTile[1]);
+            this.replay = new ReplayWriter(file, this.model, safeIndex, this.seed);
+        } catch (IOException e) {
+            System.err.println("Failed to start replay recording: " + e.getMessage());
         }
     }
 
     /**
-     * Recursively reveal neighboring cells when a cell with no neighboring mines is revealed.
+     * Appends an action to the replay of the current game, creating the replay on the first one.
+     */
+    private void record(byte kind, int index) {
+        if (this.replayPending) {
+            this.openReplay();
+        }
+        if (this.replay == null) {
+            return;
+        }
+        try {
+            this.replay.record(kind, index, this.getElapsedMillis());
+        } catch (IOException e) {
+            System.err.println("Failed to record replay: " + e.getMessage());
+            this.closeReplay();
+        }
+    }
+
+    private void closeReplay() {
+        this.replayPending = false;
+        if (this.replay == null) {
+            return;
+        }
+        try {
+            this.replay.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close replay: " + e.getMessage());
+        }
+        this.replay = null;
+    }
+
+    /**
+     * Continues a saved game instead of generating mines. The board must have been created with the
+     * saved size and mine count, and {@link #create_board()} must have been called. Nothing is
+     * regenerated: the model is restored from the saved bitsets and the view redrawn from it.
+     * A resumed game is not recorded as a replay, since its earlier moves are unknown.
      *
-     * @param row The row index of the cell.
-     * @param col The column index of the cell.
+     * @param saved The saved game.
      */
-    public void revealNeighbors(int row, int col) {
-        int[] dx = {-1, 0, 1};
-        int[] dy = {-1, 0, 1};
+    public void resume(SavedGame saved) {
+        this.closeReplay();
+        this.history.clear();
+        this.recorded = false;
+        this.ended = false;
+        saved.restore(this.model);
+        this.analyzer.analyze(this.model);
+        this.seed = saved.getSeed();
+        this.safeTile = new int[]{saved.getSafeIndex() / size, saved.getSafeIndex() % size};
+
+        GameClock.getInstance().reset(this.timerLabel, saved.getElapsedMillis());
+        GameClock.getInstance().start();
+        this.commit();
+    }
 
-        for (int i : dx) {
-            for (int j : dy) {
-                if (i == 0 && j == 0) {
-                    continue;
-                }
-                int r = row + i;
-                int c = col + j;
-                if (r >= 0 && r < size && c >= 0 && c < size) {
-                    Cell neighborCell = this.buttons.get(r).get(c);
-                    if (!neighborCell.getIsRevealed()) {
-                        neighborCell.revealCell();
-                    }
-                }
+    /**
+     * Saves the game to {@link #SAVE_FILE} if it is still in progress, or removes the save if it is over.
+     */
+    public void save() {
+        try {
+            // A board still waiting for its layout has no mines yet and nothing worth saving
+            if (this.model.getState() == BoardModel.IN_PROGRESS && this.pendingLayout == null) {
+                int safeIndex = this.model.index(this.safeTile[0], this.safeTile[1]);
+                SavedGame.save(SAVE_FILE, this.model, safeIndex, this.seed, this.getElapsedMillis(), this.noGuess);
+            } else {
+                Files.deleteIfExists(SAVE_FILE);
             }
+        } catch (IOException e) {
+            System.err.println("Failed to save the game: " + e.getMessage());
         }
     }
 
     /**
-     * Checks if the player has lost the game.
+     * Reveals a cell and, when it has no neighboring mines, the empty region around it.
+     * The cascade runs iteratively in {@link FloodFill}; the opened cells are then redrawn
+     * together by {@link #commit()}.
+     *
+     * @param index The index of the cell.
      */
-    public void checkLoss() {
-        for (List<Cell> row : this.buttons) {
-            for (Cell cell : row) {
-                if (cell.getHasMine() && cell.getIsRevealed()) {
-                    this.gameIsOn = 0;
-                    return;
-                }
+    public void revealCell(int index) {
+        if (this.model.getState() != BoardModel.IN_PROGRESS || this.model.isRevealed(index)) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        IntList opened = this.floodFill.open(index);
+        int cells = opened.size();
+        this.history.recordReveal(opened, this.floodFill.getUnflagged());
+        this.record(ReplayWriter.REVEAL, index);
+        this.commit();
+        Metrics.getInstance().recordAction(Metrics.REVEAL, start, index, cells);
+    }
+
+    /**
+     * Chords a revealed number whose flags match its count: every unflagged hidden neighbor is
+     * opened, with cascades, as one action.
+     *
+     * @param index The index of the number cell.
+     */
+    public void chordCell(int index) {
+        if (this.model.getState() != BoardModel.IN_PROGRESS || !this.floodFill.canChord(index)) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        IntList opened = this.floodFill.chord(index);
+        int cells = opened.size();
+        this.history.recordReveal(opened, this.floodFill.getUnflagged());
+        this.record(ReplayWriter.CHORD, index);
+        this.commit();
+        Metrics.getInstance().recordAction(Metrics.CHORD, start, index, cells);
+    }
+
+    /**
+     * Toggles the flag on a cell.
+     * If the cell is not revealed and not already flagged, it flags the cell.
+     * If the cell is already flagged, it unflags it.
+     *
+     * @param index The index of the cell.
+     */
+    public void flagCell(int index) {
+        if (this.model.getState() != BoardModel.IN_PROGRESS || this.model.isRevealed(index)) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        if (this.model.isFlagged(index)) {
+            this.model.setFlagged(index, false);
+        } else if (this.model.getFlagCount() < this.mines) {
+            this.model.setFlagged(index, true);
+        } else {
+            return;
+        }
+        this.history.recordFlag(index);
+        this.record(ReplayWriter.FLAG, index);
+        this.commit();
+        Metrics.getInstance().recordAction(Metrics.FLAG, start, index, 1);
+    }
+
+    /**
+     * Undoes the last reveal, chord or flag, even one that ended the game.
+     */
+    public void undo() {
+        int stateBefore = this.model.getState();
+        if (this.history.undo()) {
+            this.commitHistoryStep(stateBefore);
+        }
+    }
+
+    /**
+     * Redoes the last undone action.
+     */
+    public void redo() {
+        int stateBefore = this.model.getState();
+        if (this.history.redo()) {
+            this.commitHistoryStep(stateBefore);
+        }
+    }
+
+    /**
+     * Shows the cells changed by an undo or redo and puts the game back on if it had ended.
+     */
+    private void commitHistoryStep(int stateBefore) {
+        // A replay only describes forward play, so a game with undo is no longer recorded
+        this.closeReplay();
+
+        if (stateBefore != BoardModel.IN_PROGRESS && this.model.getState() == BoardModel.IN_PROGRESS) {
+            GameClock.getInstance().start();
+            this.atlas.show(this.face, SpriteAtlas.YELLOW);
+            this.ended = false;
+            this.markMines();
+        }
+        this.commit();
+    }
+
+    /**
+     * Finishes an action once the model has changed: reads the events it published, updates the
+     * mines label, and then redraws every changed cell in a single pass.
+     */
+    private void commit() {
+        this.viewEvents.poll(this);
+        if (this.hints != null) {
+            IntList hinted = this.hints.update();
+            for (int i = 0; i < hinted.size(); i++) {
+                this.markDirty(hinted.get(i));
             }
         }
+        if (this.model.getState() == BoardModel.IN_PROGRESS) {
+            this.updateMinesLabel();
+        }
+
+        long start = System.nanoTime();
+        if (this.dirtyAll) {
+            this.view.refreshAll();
+            this.dirtyAll = false;
+        } else {
+            this.view.refreshCells(this.dirty);
+        }
+        for (int i = 0; i < this.dirty.size(); i++) {
+            Bits.clear(this.dirtyBits, this.dirty.get(i));
+        }
+        this.dirty.clear();
+        Metrics.getInstance().record(Metrics.RENDER, start);
     }
 
     /**
-     * Checks if the player has won the game.
+     * Shows or hides the cells the player could deduce as safe or as mines. While shown, the
+     * hints are brought up to date after every action.
+     *
+     * @param shown True to show the hints.
      */
-    public void checkWin() {
-        int squaresDiscovered = 0;
+    public void setHintsShown(boolean shown) {
+        this.hints = shown ? new HintOverlay(this.model, this.events) : null;
+        this.dirtyAll = true;
+        this.commit();
+    }
 
-        for (List<Cell> row : buttons) {
-            for (Cell cell : row) {
-                if (!cell.getHasMine() && cell.getIsRevealed()) {
-                    squaresDiscovered++;
-                    if (squaresDiscovered == (this.size * this.size - mines)) {
-                        this.gameIsOn = 2;
-                    }
-                }
+    /**
+     * Queues the cell of a cell event for redrawing, and shows the end of the game.
+     *
+     * @param event The event published by the model.
+     */
+    @Override
+    public void onEvent(long event) {
+        switch (GameEvents.type(event)) {
+            case GameEvents.GAME_WON, GameEvents.GAME_LOST -> this.isGameInProgress();
+            case GameEvents.RESTARTED -> this.dirtyAll = true;
+            default -> this.markDirty(GameEvents.cell(event));
+        }
+    }
+
+    /**
+     * Redraws everything after a cascade too large for the event ring, and checks for an end of
+     * the game among the skipped events.
+     *
+     * @param lost The number of events skipped.
+     */
+    @Override
+    public void onOverrun(long lost) {
+        this.dirtyAll = true;
+        this.isGameInProgress();
+    }
+
+    private void markDirty(int index) {
+        if (!Bits.get(this.dirtyBits, index)) {
+            Bits.set(this.dirtyBits, index);
+            this.dirty.add(index);
+        }
+    }
+
+    /**
+     * Chooses the image a cell is drawn with, from the state of the cell and of the game.
+     * Once the game is over, mines are shown as bombs if it was lost and as flags if it was won.
+     *
+     * @param index The index of the cell.
+     * @return The id of the cell's sprite in the {@link SpriteAtlas}.
+     */
+    public int getSprite(int index) {
+        if (this.model.isRevealed(index)) {
+            return this.model.hasMine(index) ? SpriteAtlas.BOMB : SpriteAtlas.number(this.model.getNeighborMineCount(index));
+        }
+        if (this.model.hasMine(index) && this.model.getState() == BoardModel.LOST) {
+            return SpriteAtlas.BOMB;
+        }
+        if (this.model.hasMine(index) && this.model.getState() == BoardModel.WON) {
+            return SpriteAtlas.FLAG;
+        }
+        if (this.model.isFlagged(index)) {
+            return SpriteAtlas.FLAG;
+        }
+        if (this.hints != null && this.model.getState() == BoardModel.IN_PROGRESS) {
+            if (this.hints.isMine(index)) {
+                return SpriteAtlas.HINT_MINE;
+            }
+            if (this.hints.isSafe(index)) {
+                return SpriteAtlas.HINT_SAFE;
             }
         }
+        if (index == this.model.index(this.safeTile[0], this.safeTile[1])) {
+            return SpriteAtlas.SAFE_TILE;
+        }
+        return SpriteAtlas.TILE;
     }
 
     /**
      * Check the current state of the game (ongoing(1), lost(0), or won(2)) and update UI accordingly.
+     * Called when the model publishes the end of the game; the end is shown once. Mines to
+     * redraw at the end of the game are queued for the next {@link #commit()}.
      */
     public void isGameInProgress() {
-        this.checkLoss();
-        this.checkWin();
+        if (this.model.getState() == BoardModel.IN_PROGRESS || this.ended) {
+            return;
+        }
+        this.ended = true;
+        if (this.hints != null) {
+            this.dirtyAll = true;   // Clear the hints from every cell
+        }
 
-        if (this.gameIsOn == 0) {
-            this.btnImg.setGraphic(new ImageView(images.get("red")));
+        long start = System.nanoTime();
+        if (this.model.getState() == BoardModel.LOST) {
+            GameClock.getInstance().pause();
+            this.atlas.show(this.face, SpriteAtlas.RED);
             this.minesLabel.setText(" " + this.mines);
-            for (List<Cell> row : this.buttons) {
-                for (Cell cell: row) {
-                    if (cell.getHasMine()) {
-                        cell.getBtn().setGraphic(new ImageView(this.images.get("bomb")));
-                    }
-                }
-            }
+            this.markMines();
 
-        } else if (this.gameIsOn == 2) {
-            this.btnImg.setGraphic(new ImageView(images.get("green")));
+        } else if (this.model.getState() == BoardModel.WON) {
+            GameClock.getInstance().pause();
+            this.atlas.show(this.face, SpriteAtlas.GREEN);
             this.minesLabel.setText(" 00");
-            for (List<Cell> row : this.buttons) {
-                for (Cell cell: row) {
-                    if (cell.getHasMine()) {
-                        cell.getBtn().setGraphic(new ImageView(this.images.get("flag")));
-                    }
-                }
-            }
+            this.markMines();
         }
+        Metrics.getInstance().record(Metrics.GAME_END, start);
+        this.recordResult();
     }
 
     /**
-     * Updates the timer label to display elapsed time.
+     * Reports the finished game to the {@link Metrics} and appends it to the {@link StatsStore}.
+     * A game ended again after an undo keeps its first result.
      */
-    public void updateTimer() {
-        Timer timer = new Timer();
-        TimerTask task = new TimerTask() {
-            @Override
-            public void run() {
-                if (gameIsOn == 1) {
-                    timerCount++;
-                    Platform.runLater(() -> {
-                        String formattedTime = String.format("%03d", timerCount);
-                        timerLabel.setText(formattedTime);
-                    });
-                }
-            }
-        };
-        timer.scheduleAtFixedRate(task, 0, 1000);
+    private void recordResult() {
+        if (this.recorded) {
+            return;
+        }
+        this.recorded = true;
+        Metrics.getInstance().recordGameEnd(this.model.getState() == BoardModel.WON, this.getElapsedMillis(), this.seed);
+
+        StatsStore stats = StatsStore.getInstance();
+        if (stats == null) {
+            return;
+        }
+        try {
+            stats.append(size, this.mines, this.getElapsedMillis(), this.model.getState() == BoardModel.WON,
+                    this.analyzer.getThreeBV(), this.seed);
+        } catch (IOException e) {
+            System.err.println("Failed to record statistics: " + e.getMessage());
+        }
     }
 
     /**
-     * Restarts the game.
+     * Queues every mine for redrawing so it shows the end-of-game state.
      */
-    public void restartGame() {
-        this.gameIsOn = 1;
-        this.timerCount = 0;
+    private void markMines() {
+        for (int i = this.model.nextMine(0); i >= 0; i = this.model.nextMine(i + 1)) {
+            this.markDirty(i);
+        }
+    }
 
-        this.timerLabel.setText("000");
-        this.minesLabel.setText(" " + this.mines);
+    /**
+     * Attaches the application-wide game clock to this board's timer label and starts it from zero.
+     * The clock stops updating the label of any board shown before.
+     */
+    public void startTimer() {
+        GameClock.getInstance().reset(this.timerLabel);
+        GameClock.getInstance().start();
+    }
 
-        // Reset all cells on the board
-        for (List<Cell> row : buttons) {
-            for (Cell cell : row) {
-                cell.resetCell();
-            }
-        }
+    /**
+     * Restarts the game.
+     */
+    public void restartGame() {
+        long start = System.nanoTime();
+        this.model.reset();
+        this.startTimer();
 
-        // Generate new safe tile and mines
+        // Generate new safe tile and mines, then redraw all cells
         Random random = new Random();
         this.safeTile = new int[]{random.nextInt(size), random.nextInt(size)};
-        this.buttons.get(safeTile[0]).get(safeTile[1]).getBtn().setGraphic(new ImageView(images.get("safeTile")));
 
         generateMines();
-        btnImg.setGraphic(new ImageView(images.get("yellow")));
+        this.commit();
+        this.atlas.show(this.face, SpriteAtlas.YELLOW);
+        Metrics.getInstance().record(Metrics.RESTART, start);
+    }
+
+    /**
+     * Stops recording the current game and drops a layout still being generated, e.g. when the
+     * board is replaced or the application exits.
+     */
+    @Override
+    public void close() {
+        this.pendingLayout = null;
+        this.closeReplay();
     }
 
     /**
@@ -344,7 +728,52 @@ public class Board {
      *         0: Game lost, 1: Game in progress, 2: Game won.
      */
     public int getGameIsOn() {
-        return this.gameIsOn;
+        return this.model.getState();
+    }
+
+    /**
+     * Gets the time elapsed in the current game.
+     *
+     * @return The elapsed time in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return GameClock.getInstance().getElapsedMillis();
+    }
+
+    /**
+     * Gets the seed of the current mine layout.
+     *
+     * @return The seed passed to {@link MinePlacer}.
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Gets the events published by the board's model, e.g. for a recorder or bot to subscribe to.
+     *
+     * @return The event ring of this board.
+     */
+    public GameEvents getEvents() {
+        return this.events;
+    }
+
+    /**
+     * Gets the measures of the current mine layout, computed when it was generated.
+     *
+     * @return The analyzer holding the 3BV, openings, islands and ideal clicks of the layout.
+     */
+    public BoardAnalyzer getAnalyzer() {
+        return this.analyzer;
+    }
+
+    /**
+     * Gets the headless model holding the state of the board.
+     *
+     * @return The board model.
+     */
+    public BoardModel getModel() {
+        return this.model;
     }
 
     /**
@@ -368,44 +797,23 @@ public class Board {
     }
 
     /**
-     * Updates the mines label with the given number.
+     * Retrieves the atlas the cell and face graphics are drawn from.
      *
-     * @param num The number to update the mines label with.
+     * @return The sprite atlas of this board.
      */
-    public void updateMinesLabel(int num) {
-        int currentMinesCount = Integer.parseInt(this.minesLabel.getText().trim());
-        currentMinesCount += num;
-        if (currentMinesCount < 10) {
-            this.minesLabel.setText(" 0" + currentMinesCount);
-        } else {
-            this.minesLabel.setText(" " + currentMinesCount);
-        }
+    public SpriteAtlas getAtlas() {
+        return this.atlas;
     }
 
     /**
-     * Loads images for various game elements.
+     * Updates the mines label with the number of mines not yet flagged, from the model's counter.
      */
-    @SuppressWarnings("ConstantConditions")
-    private void loadImages() {
-        try {
-            // Load images for different game elements
-            this.images.put("safeTile", new Image(getClass().getResourceAsStream("images/safe.png")));
-            this.images.put("bomb", new Image(getClass().getResourceAsStream("images/bomb.png")));
-            this.images.put("flag", new Image(getClass().getResourceAsStream("images/flag.png")));
-            this.images.put("tile", new Image(getClass().getResourceAsStream("images/tile.png")));
-            this.images.put("yellow", new Image(getClass().getResourceAsStream("images/yellow.png")));
-            this.images.put("green", new Image(getClass().getResourceAsStream("images/green.png")));
-            this.images.put("red", new Image(getClass().getResourceAsStream("images/red.png")));
-            this.images.put("timer", new Image(getClass().getResourceAsStream("images/timer.png")));
-
-            // Load number images
-            for (int i = 0; i <= 8; i++) {
-                this.images.put(String.valueOf(i), new Image(getClass().getResourceAsStream(
-                        "images/" + i + ".png")));
-            }
-        } catch (NullPointerException e) {
-            // Handle image loading failure
-            System.err.println("Failed to load image resources: " + e.getMessage());
+    public void updateMinesLabel() {
+        int currentMinesCount = this.mines - this.model.getFlagCount();
+        if (currentMinesCount < 10) {
+            this.minesLabel.setText(" 0" + currentMinesCount);
+        } else {
+            this.minesLabel.setText(" " + currentMinesCount);
         }
     }
 }
@@ -0,0 +1,281 @@
+package minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * Standard measures of a mine layout, independent of how it is played:
+ * <ul>
+ *     <li>openings: connected regions (8-connected) of cells with no neighboring mines, each
+ *     cleared together with its numbered border by one click;</li>
+ *     <li>islands: connected groups of numbers outside every opening's border, each of whose
+ *     cells takes a click of its own;</li>
+ *     <li>3BV: the least number of clicks that clears the board without flags, the openings
+ *     plus the island cells;</li>
+ *     <li>ideal clicks: the clicks of a greedy flag-and-chord plan, never more than the 3BV.</li>
+ * </ul>
+ * Openings and islands are labeled in a single linear pass with a union-find over a primitive
+ * int array: each cell is joined to its already scanned neighbors of the same kind, the smaller
+ * root winning, so every component's root is its first cell and one more pass points every cell
+ * straight at its root. Cells are kept in a grid padded with one empty cell on every side, so
+ * neighbors are fixed offsets with no bounds checks. An analyzer reuses its arrays across
+ * boards, so analyzing in bulk allocates nothing; it is not thread-safe.
+ */
+public final class BoardAnalyzer {
+    // Kinds of cells
+    private static final byte MINE = 0;
+    private static final byte ZERO = 1;
+    private static final byte ISLAND = 2;   // A number outside every opening's border
+    private static final byte BORDER = 3;   // A number next to an opening
+    private static final byte PADDING = 4;  // Outside the board
+
+    // Marks of the greedy plan
+    private static final byte REVEALED = 1;
+    private static final byte FLAGGED = 2;
+    private static final byte OPENED = 4;   // On the root of an opening
+
+    // All arrays are indexed by padded cell: (row + 1) * stride + col + 1
+    private byte[] kinds = new byte[0];
+    private int[] parent = new int[0];  // Union-find parent of each zero and island cell
+    private int[] chain = new int[0];   // Next cell of the same opening, or -1
+    private int[] sizes = new int[0];   // Cells under each island root
+    private byte[] marks = new byte[0]; // State of each cell in the greedy plan
+    private final int[] around = new int[9];    // Offsets of a cell and its neighbors
+    private final int[] roots = new int[8];     // Scratch: openings around the number being planned
+    private final IntList islandSizes = new IntList();
+    private int openings;
+    private int islandCells;
+    private int idealClicks;
+
+    /**
+     * Analyzes a board, replacing the results of the previous one.
+     *
+     * @param model The board, with mines placed.
+     */
+    public void analyze(BoardModel model) {
+        int width = model.getWidth();
+        int height = model.getHeight();
+        int stride = width + 2;
+        int padded = stride * (height + 2);
+        if (this.kinds.length < padded) {
+            this.kinds = new byte[padded];
+            this.parent = new int[padded];
+            this.chain = new int[padded];
+            this.sizes = new int[padded];
+            this.marks = new byte[padded];
+        }
+        int k = 0;
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                this.around[k++] = dr * stride + dc;
+            }
+        }
+        this.openings = 0;
+        this.islandCells = 0;
+        this.islandSizes.clear();
+
+        // Classify every cell, then turn the numbers around each zero into border cells
+        Arrays.fill(this.kinds, 0, padded, PADDING);
+        Arrays.fill(this.marks, 0, padded, (byte) 0);
+        Arrays.fill(this.sizes, 0, padded, 0);
+        for (int row = 0, i = 0; row < height; row++) {
+            for (int col = 0, p = (row + 1) * stride + 1; col < width; col++, i++, p++) {
+                this.kinds[p] = model.hasMine(i) ? MINE : model.getNeighborMineCount(i) == 0 ? ZERO : ISLAND;
+            }
+        }
+        for (int p = stride; p < padded - stride; p++) {
+            if (this.kinds[p] == ZERO) {
+                for (int offset : this.around) {
+                    if (this.kinds[p + offset] == ISLAND) {
+                        this.kinds[p + offset] = BORDER;
+                    }
+                }
+            }
+        }
+
+        // Label: join each zero or island cell to its left and upper neighbors of the same kind
+        for (int p = stride; p < padded - stride; p++) {
+            byte kind = this.kinds[p];
+            if (kind != ZERO && kind != ISLAND) {
+                continue;
+            }
+            this.parent[p] = p;
+            this.join(p, p - 1, kind);
+            this.join(p, p - stride - 1, kind);
+            this.join(p, p - stride, kind);
+            this.join(p, p - stride + 1, kind);
+        }
+
+        // Point every cell at its root, which comes before it, and count the components
+        for (int p = stride; p < padded - stride; p++) {
+            byte kind = this.kinds[p];
+            if (kind != ZERO && kind != ISLAND) {
+                continue;
+            }
+            int root = this.parent[this.parent[p]];
+            this.parent[p] = root;
+            if (kind == ZERO) {
+                if (root == p) {
+                    this.openings++;
+                    this.chain[p] = -1;
+                } else {
+                    this.chain[p] = this.chain[root];
+                    this.chain[root] = p;
+                }
+            } else {
+                this.sizes[root]++;
+                this.islandCells++;
+            }
+        }
+        for (int p = stride; p < padded - stride; p++) {
+            if (this.sizes[p] > 0) {
+                this.islandSizes.add(this.sizes[p]);
+            }
+        }
+
+        this.idealClicks = this.planClicks(stride, padded);
+    }
+
+    public int getThreeBV() {
+        return this.openings + this.islandCells;
+    }
+
+    public int getOpenings() {
+        return this.openings;
+    }
+
+    public int getIslands() {
+        return this.islandSizes.size();
+    }
+
+    /**
+     * Gets the number of cells in each island, in the order of their first cell.
+     *
+     * @return The island sizes. The list is reused by the next analysis.
+     */
+    public IntList getIslandSizes() {
+        return this.islandSizes;
+    }
+
+    public int getIdealClicks() {
+        return this.idealClicks;
+    }
+
+    /**
+     * Plans a game greedily: going over the numbers once, a number is revealed, its mines flagged
+     * and chorded whenever that completes more 3BV than it costs clicks. Whatever is left is
+     * clicked one 3BV at a time. The plan is a valid game, so its clicks bound the fewest
+     * possible from above.
+     */
+    private int planClicks(int stride, int padded) {
+        int clicks = 0;
+        for (int n = stride; n < padded - stride; n++) {
+            if (this.kinds[n] != ISLAND && this.kinds[n] != BORDER) {
+                continue;
+            }
+            int gain = 0;
+            int cost = 1;   // The chord
+            if ((this.marks[n] & REVEALED) == 0) {
+                cost++;
+                if (this.kinds[n] == ISLAND) {
+                    gain++;
+                }
+            }
+            int openingsAround = 0;
+            for (int offset : this.around) {
+                int i = n + offset;
+                switch (this.kinds[i]) {
+                    case MINE -> cost += (this.marks[i] & FLAGGED) == 0 ? 1 : 0;
+                    case ZERO -> openingsAround = this.addRoot(this.parent[i], openingsAround);
+                    case ISLAND -> gain += i != n && (this.marks[i] & REVEALED) == 0 ? 1 : 0;
+                    default -> {
+                    }
+                }
+            }
+            if (gain + openingsAround <= cost) {
+                continue;
+            }
+
+            // Reveal, flag and chord
+            clicks += cost;
+            for (int offset : this.around) {
+                int i = n + offset;
+                switch (this.kinds[i]) {
+                    case MINE -> this.marks[i] |= FLAGGED;
+                    case ZERO -> this.open(this.parent[i]);
+                    default -> this.marks[i] |= REVEALED;
+                }
+            }
+        }
+
+        // Click every opening and island cell the plan left
+        for (int p = stride; p < padded - stride; p++) {
+            if (this.kinds[p] == ZERO && this.parent[p] == p && (this.marks[p] & OPENED) == 0
+                    || this.kinds[p] == ISLAND && (this.marks[p] & REVEALED) == 0) {
+                clicks++;
+            }
+        }
+        return clicks;
+    }
+
+    /**
+     * Adds an unopened opening to the ones around the number being planned, once.
+     *
+     * @return The new number of openings around it.
+     */
+    private int addRoot(int root, int count) {
+        if ((this.marks[root] & OPENED) != 0) {
+            return count;
+        }
+        for (int k = 0; k < count; k++) {
+            if (this.roots[k] == root) {
+                return count;
+            }
+        }
+        this.roots[count] = root;
+        return count + 1;
+    }
+
+    /**
+     * Opens an opening in the plan, revealing its cells and border. Each opening is opened at
+     * most once, so all openings together cost time linear in the board.
+     */
+    private void open(int root) {
+        if ((this.marks[root] & OPENED) != 0) {
+            return;
+        }
+        this.marks[root] |= OPENED;
+        for (int z = root; z >= 0; z = this.chain[z]) {
+            for (int offset : this.around) {
+                this.marks[z + offset] |= REVEALED;
+            }
+        }
+    }
+
+    /**
+     * Joins a cell's component with a scanned neighbor's if the neighbor is of the same kind.
+     */
+    private void join(int cell, int neighbor, byte kind) {
+        if (this.kinds[neighbor] != kind) {
+            return;
+        }
+        int a = this.find(cell);
+        int b = this.find(neighbor);
+        // The smaller root wins, so every component's root is its first cell
+        if (a < b) {
+            this.parent[b] = a;
+        } else if (b < a) {
+            this.parent[a] = b;
+        }
+    }
+
+    /**
+     * Finds the root of a cell's component, halving the path on the way.
+     */
+    private int find(int index) {
+        while (this.parent[index] != index) {
+            this.parent[index] = this.parent[this.parent[index]];
+            index = this.parent[index];
+        }
+        return index;
+    }
+}
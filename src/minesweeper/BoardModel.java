@@ -0,0 +1,317 @@
+package minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * Headless game state for a Minesweeper board.
+ * Cells are addressed by index = row * width + col. Mine, revealed and flagged state are kept
+ * in long[] bitsets and neighbor mine counts in a byte[], so a board needs no JavaFX toolkit
+ * and costs a few bits per cell.
+ * The game state is kept up to date by counters as cells change, so checking for a win or
+ * loss takes constant time. Every change can also be published to a {@link GameEvents} ring.
+ */
+public class BoardModel {
+    public static final int LOST = 0;
+    public static final int IN_PROGRESS = 1;
+    public static final int WON = 2;
+
+    private final int width;    // Number of columns
+    private final int height;   // Number of rows
+    private final int cells;    // Number of cells
+    private final int mines;    // Number of mines on the board
+
+    private final long[] mineBits;      // Cells containing a mine
+    private final long[] revealedBits;  // Cells revealed by the player
+    private final long[] flaggedBits;   // Cells flagged by the player
+    private final byte[] neighborCounts;    // Number of mines around each cell
+
+    private int state;  // Current game state
+    private int safeRevealed;   // Number of safe cells revealed
+    private int flagCount;  // Number of flags placed
+    private int minesRevealed;  // Number of mines revealed
+    private GameEvents events;  // Receives every change, or null
+
+    /**
+     * Constructs an empty board model.
+     *
+     * @param width  The number of columns.
+     * @param height The number of rows.
+     * @param mines  The number of mines on the board.
+     */
+    public BoardModel(int width, int height, int mines) {
+        if (width <= 0 || height <= 0 || (long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid board size: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.cells = width * height;
+        this.mines = mines;
+
+        this.mineBits = Bits.create(cells);
+        this.revealedBits = Bits.create(cells);
+        this.flaggedBits = Bits.create(cells);
+        this.neighborCounts = new byte[cells];
+
+        this.state = IN_PROGRESS;
+    }
+
+    /**
+     * Places mines on the given cells and computes neighbor mine counts in bulk with
+     * {@link NeighborCounter}. Any previous mines are removed first.
+     *
+     * @param mineIndices The indices of the cells that receive a mine.
+     */
+    public void placeMines(int[] mineIndices) {
+        Arrays.fill(this.mineBits, 0L);
+        for (int mine : mineIndices) {
+            Bits.set(this.mineBits, mine);
+        }
+        NeighborCounter.count(this.mineBits, this.width, this.height, this.neighborCounts);
+    }
+
+    /**
+     * Places mines on the cells set in a bitset, e.g. from a saved game, and computes neighbor
+     * mine counts. Any previous mines are removed first.
+     *
+     * @param mines The cells that receive a mine, as a bitset of this board's size.
+     */
+    public void placeMines(long[] mines) {
+        System.arraycopy(mines, 0, this.mineBits, 0, this.mineBits.length);
+        NeighborCounter.count(this.mineBits, this.width, this.height, this.neighborCounts);
+    }
+
+    /**
+     * Marks a cell as revealed and updates the game state. A flag on the cell is removed.
+     *
+     * @param index The index of the cell.
+     * @return True if the cell was flagged before being revealed.
+     */
+    public boolean reveal(int index) {
+        if (Bits.get(this.revealedBits, index)) {
+            return false;
+        }
+        Bits.set(this.revealedBits, index);
+
+        if (Bits.get(this.mineBits, index)) {
+            this.minesRevealed++;
+        } else {
+            this.safeRevealed++;
+        }
+
+        boolean wasFlagged = Bits.get(this.flaggedBits, index);
+        if (wasFlagged) {
+            Bits.clear(this.flaggedBits, index);
+            this.flagCount--;
+        }
+        this.publish(GameEvents.CELL_REVEALED, index, wasFlagged ? 1 : 0);
+        this.updateState();
+        return wasFlagged;
+    }
+
+    /**
+     * Hides a revealed cell again, undoing {@link #reveal(int)}, and updates the game state.
+     * A flag the reveal removed is not restored; the caller puts it back.
+     *
+     * @param index The index of the cell.
+     */
+    public void hide(int index) {
+        if (!Bits.get(this.revealedBits, index)) {
+            return;
+        }
+        Bits.clear(this.revealedBits, index);
+        if (Bits.get(this.mineBits, index)) {
+            this.minesRevealed--;
+        } else {
+            this.safeRevealed--;
+        }
+        this.publish(GameEvents.CELL_HIDDEN, index, 0);
+        this.updateState();
+    }
+
+    /**
+     * Derives the game state from the counters: lost once a mine is revealed, won once every
+     * safe cell is. The end of the game is published once, when the state changes.
+     */
+    private void updateState() {
+        int previous = this.state;
+        if (this.minesRevealed > 0) {
+            this.state = LOST;
+        } else if (this.safeRevealed == this.cells - this.mines) {
+            this.state = WON;
+        } else {
+            this.state = IN_PROGRESS;
+        }
+        if (this.state != previous && this.state != IN_PROGRESS) {
+            this.publish(this.state == WON ? GameEvents.GAME_WON : GameEvents.GAME_LOST, 0, 0);
+        }
+    }
+
+    private void publish(int type, int index, int argument) {
+        if (this.events != null) {
+            this.events.publish(GameEvents.pack(type, index, argument));
+        }
+    }
+
+    /**
+     * Sets or removes the flag on a cell.
+     *
+     * @param index   The index of the cell.
+     * @param flagged True to flag the cell, false to remove the flag.
+     */
+    public void setFlagged(int index, boolean flagged) {
+        if (flagged == Bits.get(this.flaggedBits, index)) {
+            return;
+        }
+        if (flagged) {
+            Bits.set(this.flaggedBits, index);
+            this.flagCount++;
+        } else {
+            Bits.clear(this.flaggedBits, index);
+            this.flagCount--;
+        }
+        this.publish(GameEvents.CELL_FLAGGED, index, flagged ? 1 : 0);
+    }
+
+    /**
+     * Clears all mines, revealed cells and flags and puts the game back in progress.
+     */
+    public void reset() {
+        Arrays.fill(this.mineBits, 0L);
+        Arrays.fill(this.revealedBits, 0L);
+        Arrays.fill(this.flaggedBits, 0L);
+        Arrays.fill(this.neighborCounts, (byte) 0);
+        this.state = IN_PROGRESS;
+        this.safeRevealed = 0;
+        this.flagCount = 0;
+        this.minesRevealed = 0;
+        this.publish(GameEvents.RESTARTED, 0, 0);
+    }
+
+    /**
+     * Replaces the revealed and flagged cells, e.g. from a saved game or a replay checkpoint,
+     * and recomputes the counters and game state from them. Mines must already be placed.
+     *
+     * @param revealed The revealed cells, as a bitset of this board's size.
+     * @param flagged  The flagged cells, as a bitset of this board's size.
+     */
+    public void restore(long[] revealed, long[] flagged) {
+        System.arraycopy(revealed, 0, this.revealedBits, 0, this.revealedBits.length);
+        System.arraycopy(flagged, 0, this.flaggedBits, 0, this.flaggedBits.length);
+
+        this.safeRevealed = 0;
+        this.minesRevealed = 0;
+        for (int w = 0; w < this.revealedBits.length; w++) {
+            this.safeRevealed += Long.bitCount(this.revealedBits[w] & ~this.mineBits[w]);
+            this.minesRevealed += Long.bitCount(this.revealedBits[w] & this.mineBits[w]);
+        }
+        this.flagCount = Bits.count(this.flaggedBits);
+        this.updateState();
+        this.publish(GameEvents.RESTARTED, 0, 0);
+    }
+
+    /**
+     * Publishes every later change of the board to a ring of events.
+     *
+     * @param events The ring, written from the thread that changes the board, or null to stop publishing.
+     */
+    public void setEvents(GameEvents events) {
+        this.events = events;
+    }
+
+    /**
+     * Computes the index of a cell.
+     *
+     * @param row The row index of the cell.
+     * @param col The column index of the cell.
+     * @return The index of the cell.
+     */
+    public int index(int row, int col) {
+        return row * width + col;
+    }
+
+    /**
+     * Checks if the given coordinates lie on the board.
+     *
+     * @param row The row index.
+     * @param col The column index.
+     * @return True if the coordinates are on the board, false otherwise.
+     */
+    public boolean contains(int row, int col) {
+        return row >= 0 && row < height && col >= 0 && col < width;
+    }
+
+    public boolean hasMine(int index) {
+        return Bits.get(this.mineBits, index);
+    }
+
+    public boolean isRevealed(int index) {
+        return Bits.get(this.revealedBits, index);
+    }
+
+    public boolean isFlagged(int index) {
+        return Bits.get(this.flaggedBits, index);
+    }
+
+    /**
+     * Finds the next mine at or after the given index.
+     *
+     * @param from The index to start searching from.
+     * @return The index of the next mine, or -1 if there is none.
+     */
+    public int nextMine(int from) {
+        return Bits.nextSetBit(this.mineBits, from);
+    }
+
+    public int getNeighborMineCount(int index) {
+        return this.neighborCounts[index];
+    }
+
+    public int getWidth() {
+        return this.width;
+    }
+
+    public int getHeight() {
+        return this.height;
+    }
+
+    public int getCells() {
+        return this.cells;
+    }
+
+    public int getMines() {
+        return this.mines;
+    }
+
+    public int getSafeRevealed() {
+        return this.safeRevealed;
+    }
+
+    public int getFlagCount() {
+        return this.flagCount;
+    }
+
+    public boolean isMineRevealed() {
+        return this.minesRevealed > 0;
+    }
+
+    long[] getMineBits() {
+        return this.mineBits;
+    }
+
+    long[] getRevealedBits() {
+        return this.revealedBits;
+    }
+
+    long[] getFlaggedBits() {
+        return this.flaggedBits;
+    }
+
+    /**
+     * Gets the current state of the game.
+     *
+     * @return LOST (0), IN_PROGRESS (1) or WON (2).
+     */
+    public int getState() {
+        return this.state;
+    }
+}
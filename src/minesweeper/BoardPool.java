@@ -0,0 +1,120 @@
+package minesweeper;
+
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps a few pre-generated no-guess layouts per board size, so a new game can start instantly
+ * instead of waiting on {@link NoGuessGenerator}. Pools are refilled on background threads, and a
+ * layout wanted while its pool is empty is generated on one too, so the caller never waits.
+ */
+public final class BoardPool {
+    public static final int CAPACITY = 4;   // Layouts kept ready per board size
+    private static final BoardPool INSTANCE = new BoardPool();
+
+    private final Map<String, BlockingQueue<Layout>> pools;
+    private final Map<String, Boolean> refilling;   // Sizes with a refill in progress
+    private final ExecutorService refiller;     // Refills pools and generates layouts for empty ones
+
+    private BoardPool() {
+        this.pools = new ConcurrentHashMap<>();
+        this.refilling = new ConcurrentHashMap<>();
+        this.refiller = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "board-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the application-wide pool.
+     *
+     * @return The board pool.
+     */
+    public static BoardPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts filling the pool for a board size in the background.
+     *
+     * @param size  The size of the board.
+     * @param mines The number of mines on the board.
+     */
+    public void prefill(int size, int mines) {
+        String key = key(size, mines);
+        BlockingQueue<Layout> pool = this.pools.computeIfAbsent(key, k -> new ArrayBlockingQueue<>(CAPACITY));
+        if (pool.remainingCapacity() == 0 || this.refilling.putIfAbsent(key, Boolean.TRUE) != null) {
+            return;
+        }
+        this.refiller.execute(() -> {
+            try {
+                SplittableRandom random = new SplittableRandom();
+                while (pool.remainingCapacity() > 0) {
+                    Layout layout = generate(size, mines, random);
+                    if (layout == null || !pool.offer(layout)) {
+                        break;
+                    }
+                }
+            } finally {
+                this.refilling.remove(key);
+            }
+        });
+    }
+
+    /**
+     * Takes a no-guess layout for a board size without blocking. A pre-generated layout is used if
+     * one is ready, and the future is then already complete; otherwise one is generated in the
+     * background. The pool is refilled in the background either way.
+     *
+     * @param size  The size of the board.
+     * @param mines The number of mines on the board.
+     * @return The layout, completed with null if no no-guess layout could be found for this density.
+     */
+    public CompletableFuture<Layout> take(int size, int mines) {
+        BlockingQueue<Layout> pool = this.pools.get(key(size, mines));
+        Layout layout = pool != null ? pool.poll() : null;
+        CompletableFuture<Layout> future = layout != null ? CompletableFuture.completedFuture(layout)
+                : CompletableFuture.supplyAsync(() -> generate(size, mines, new SplittableRandom()), this.refiller);
+        this.prefill(size, mines);
+        return future;
+    }
+
+    private static Layout generate(int size, int mines, SplittableRandom random) {
+        int safeIndex = random.nextInt(size * size);
+        OptionalLong seed = NoGuessGenerator.generate(size, size, mines, safeIndex, random.nextLong());
+        return seed.isPresent() ? new Layout(safeIndex, seed.getAsLong()) : null;
+    }
+
+    private static String key(int size, int mines) {
+        return size + "x" + size + "/" + mines;
+    }
+
+    /**
+     * A safe tile and the {@link MinePlacer} seed of a layout that can be solved from it.
+     */
+    public static final class Layout {
+        private final int safeIndex;
+        private final long seed;
+
+        Layout(int safeIndex, long seed) {
+            this.safeIndex = safeIndex;
+            this.seed = seed;
+        }
+
+        public int getSafeIndex() {
+            return this.safeIndex;
+        }
+
+        public long getSeed() {
+            return this.seed;
+        }
+    }
+}
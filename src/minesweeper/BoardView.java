@@ -0,0 +1,56 @@
+package minesweeper;
+
+import javafx.scene.Node;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+
+/**
+ * Renders the cells of a {@link Board}.
+ * Views draw each cell from the board's model through {@link Board#getSprite(int)} and
+ * forward clicks back to the board.
+ */
+public interface BoardView {
+
+    /**
+     * Gets the node that displays the cells.
+     *
+     * @return The node to place in the board layout.
+     */
+    Node getNode();
+
+    /**
+     * Redraws a single cell after its state changed.
+     *
+     * @param index The index of the cell.
+     */
+    void refreshCell(int index);
+
+    /**
+     * Redraws the cells changed by one action, in a single pass.
+     *
+     * @param cells The indices of the cells, without duplicates.
+     */
+    default void refreshCells(IntList cells) {
+        for (int i = 0; i < cells.size(); i++) {
+            this.refreshCell(cells.get(i));
+        }
+    }
+
+    /**
+     * Redraws every cell, e.g. after the game is restarted.
+     */
+    void refreshAll();
+
+    /**
+     * Checks whether a click is a chord: a middle click, or a click of one button while the
+     * other is held.
+     *
+     * @param e The click.
+     * @return True if the click should chord the cell.
+     */
+    static boolean isChord(MouseEvent e) {
+        return e.getButton() == MouseButton.MIDDLE
+                || (e.getButton() == MouseButton.PRIMARY && e.isSecondaryButtonDown())
+                || (e.getButton() == MouseButton.SECONDARY && e.isPrimaryButtonDown());
+    }
+}
@@ -0,0 +1,231 @@
+package minesweeper;
+
+import javafx.geometry.Orientation;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.Pane;
+
+/**
+ * Renders the board onto a single Canvas inside a scrollable, zoomable viewport.
+ * Only the tiles inside the viewport are painted, and a state change repaints just the
+ * cells it touched, so the cost of a frame does not grow with the size of the board.
+ * Scroll to pan (Shift+scroll pans horizontally) and Ctrl+scroll to zoom.
+ */
+public class CanvasBoardView implements BoardView {
+    private static final double GAP = 2;    // Space between tiles, as in the grid view
+    private static final double MAX_VIEWPORT = 720;   // Largest initial viewport size
+    private static final double MIN_ZOOM = 0.25;
+    private static final double MAX_ZOOM = 2;
+    private static final double ZOOM_STEP = 1.1;
+
+    private final Board board;
+    private final BoardModel model;
+    private final SpriteAtlas atlas;
+    private final double tileSize;  // Unscaled tile size in pixels
+
+    private final Canvas canvas;
+    private final GraphicsContext gc;
+    private final Pane viewport;    // Holds the canvas and defines the visible area
+    private final ScrollBar hbar;
+    private final ScrollBar vbar;
+    private final BorderPane root;
+
+    private double zoom;    // Current scale of the tiles
+
+    /**
+     * Constructs the canvas view for the given board.
+     *
+     * @param board The Minesweeper game board.
+     */
+    public CanvasBoardView(Board board) {
+        this.board = board;
+        this.model = board.getModel();
+        this.atlas = board.getAtlas();
+        this.tileSize = this.atlas.getViewport(SpriteAtlas.TILE).getWidth();
+        this.zoom = 1;
+
+        this.canvas = new Canvas();
+        this.gc = this.canvas.getGraphicsContext2D();
+        this.gc.setImageSmoothing(false);
+        this.viewport = new Pane(this.canvas);
+        this.viewport.setPrefSize(Math.min(contentWidth(), MAX_VIEWPORT), Math.min(contentHeight(), MAX_VIEWPORT));
+
+        this.hbar = new ScrollBar();
+        this.hbar.setOrientation(Orientation.HORIZONTAL);
+        this.vbar = new ScrollBar();
+        this.vbar.setOrientation(Orientation.VERTICAL);
+
+        this.root = new BorderPane();
+        this.root.setCenter(this.viewport);
+        this.root.setBottom(this.hbar);
+        this.root.setRight(this.vbar);
+
+        // Keep the canvas the size of the viewport and repaint when it or the scroll position changes
+        this.viewport.widthProperty().addListener(o -> this.layoutCanvas());
+        this.viewport.heightProperty().addListener(o -> this.layoutCanvas());
+        this.hbar.valueProperty().addListener(o -> this.repaint());
+        this.vbar.valueProperty().addListener(o -> this.repaint());
+
+        // Map mouse coordinates back to cells
+        this.canvas.setOnMouseClicked(e -> {
+            int index = this.cellAt(e.getX(), e.getY());
+            if (index < 0) {
+                return;
+            }
+            if (BoardView.isChord(e)) {
+                this.board.chordCell(index);
+            } else if (e.getButton() == MouseButton.PRIMARY) {
+                this.board.revealCell(index);
+            } else if (e.getButton() == MouseButton.SECONDARY) {
+                this.board.flagCell(index);
+            }
+        });
+
+        this.canvas.setOnScroll(e -> {
+            if (e.isControlDown()) {
+                this.zoomAt(e.getDeltaY() > 0 ? ZOOM_STEP : 1 / ZOOM_STEP, e.getX(), e.getY());
+            } else if (e.isShiftDown()) {
+                this.scrollTo(this.hbar, this.hbar.getValue() - (e.getDeltaX() != 0 ? e.getDeltaX() : e.getDeltaY()));
+            } else {
+                this.scrollTo(this.hbar, this.hbar.getValue() - e.getDeltaX());
+                this.scrollTo(this.vbar, this.vbar.getValue() - e.getDeltaY());
+            }
+            e.consume();
+        });
+    }
+
+    @Override
+    public Node getNode() {
+        return this.root;
+    }
+
+    @Override
+    public void refreshCell(int index) {
+        int row = index / this.model.getWidth();
+        int col = index % this.model.getWidth();
+        double x = col * step() - this.hbar.getValue();
+        double y = row * step() - this.vbar.getValue();
+
+        // Cells outside the viewport are painted when they are scrolled into view
+        if (x + step() > 0 && x < this.canvas.getWidth() && y + step() > 0 && y < this.canvas.getHeight()) {
+            this.drawTile(index, x, y);
+        }
+    }
+
+    /**
+     * Redraws the changed cells, or the whole viewport at once when an action changed more
+     * cells than are visible.
+     */
+    @Override
+    public void refreshCells(IntList cells) {
+        double visible = (this.canvas.getWidth() / step() + 1) * (this.canvas.getHeight() / step() + 1);
+        if (cells.size() > visible) {
+            this.repaint();
+        } else {
+            BoardView.super.refreshCells(cells);
+        }
+    }
+
+    @Override
+    public void refreshAll() {
+        this.repaint();
+    }
+
+    /**
+     * Paints every tile that is at least partly inside the viewport.
+     */
+    private void repaint() {
+        double step = step();
+        double scrollX = this.hbar.getValue();
+        double scrollY = this.vbar.getValue();
+        this.gc.clearRect(0, 0, this.canvas.getWidth(), this.canvas.getHeight());
+
+        int firstCol = Math.max(0, (int) (scrollX / step));
+        int lastCol = Math.min(this.model.getWidth() - 1, (int) ((scrollX + this.canvas.getWidth()) / step));
+        int firstRow = Math.max(0, (int) (scrollY / step));
+        int lastRow = Math.min(this.model.getHeight() - 1, (int) ((scrollY + this.canvas.getHeight()) / step));
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                this.drawTile(this.model.index(row, col), col * step - scrollX, row * step - scrollY);
+            }
+        }
+    }
+
+    private void drawTile(int index, double x, double y) {
+        double size = this.tileSize * this.zoom;
+        Rectangle2D source = this.atlas.getViewport(this.board.getSprite(index));
+        this.gc.drawImage(this.atlas.getImage(), source.getMinX(), source.getMinY(), source.getWidth(),
+                source.getHeight(), x, y, size, size);
+    }
+
+    /**
+     * Finds the cell under a point of the canvas.
+     *
+     * @return The index of the cell, or -1 if the point is outside the board.
+     */
+    private int cellAt(double x, double y) {
+        int col = (int) Math.floor((x + this.hbar.getValue()) / step());
+        int row = (int) Math.floor((y + this.vbar.getValue()) / step());
+        return this.model.contains(row, col) ? this.model.index(row, col) : -1;
+    }
+
+    /**
+     * Scales the tiles while keeping the point under the cursor in place.
+     */
+    private void zoomAt(double factor, double x, double y) {
+        double newZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, this.zoom * factor));
+        if (newZoom == this.zoom) {
+            return;
+        }
+        double boardX = (x + this.hbar.getValue()) / step();
+        double boardY = (y + this.vbar.getValue()) / step();
+        this.zoom = newZoom;
+
+        this.updateScrollBars();
+        this.scrollTo(this.hbar, boardX * step() - x);
+        this.scrollTo(this.vbar, boardY * step() - y);
+        this.repaint();
+    }
+
+    private void layoutCanvas() {
+        this.canvas.setWidth(this.viewport.getWidth());
+        this.canvas.setHeight(this.viewport.getHeight());
+        this.updateScrollBars();
+        this.repaint();
+    }
+
+    private void updateScrollBars() {
+        this.hbar.setMax(Math.max(0, contentWidth() - this.canvas.getWidth()));
+        this.hbar.setVisibleAmount(this.canvas.getWidth());
+        this.hbar.setUnitIncrement(step());
+        this.hbar.setBlockIncrement(this.canvas.getWidth());
+        this.vbar.setMax(Math.max(0, contentHeight() - this.canvas.getHeight()));
+        this.vbar.setVisibleAmount(this.canvas.getHeight());
+        this.vbar.setUnitIncrement(step());
+        this.vbar.setBlockIncrement(this.canvas.getHeight());
+        this.scrollTo(this.hbar, this.hbar.getValue());
+        this.scrollTo(this.vbar, this.vbar.getValue());
+    }
+
+    private void scrollTo(ScrollBar bar, double value) {
+        bar.setValue(Math.max(0, Math.min(bar.getMax(), value)));
+    }
+
+    private double step() {
+        return (this.tileSize + GAP) * this.zoom;
+    }
+
+    private double contentWidth() {
+        return this.model.getWidth() * step();
+    }
+
+    private double contentHeight() {
+        return this.model.getHeight() * step();
+    }
+}
@@ -4,16 +4,13 @@ import javafx.scene.control.Button;
 import javafx.scene.image.ImageView;
 
 /**
- * The Cell class represents a single cell in the Minesweeper game board.
+ * The Cell class is the view of a single cell in the Minesweeper game board.
+ * The cell's state lives in the board's {@link BoardModel}; the cell only owns its button.
  */
 public class Cell {
-    private final int row;
-    private final int col;
-    private boolean hasMine;
-    private boolean isRevealed;
-    private boolean isFlagged;
-    private int neighborMineCount;
+    private final int index;
     private final Button btn;
+    private final ImageView graphic;    // The cell's only graphic; refreshes swap its sprite
     private final Board board;
 
     /**
@@ -25,43 +22,18 @@ public class Cell {
      */
     public Cell(Board board, int row, int col) {
         this.board = board;
-        this.row = row;
-        this.col = col;
-        this.hasMine = false;
-        this.isRevealed = false;
-        this.isFlagged = false;
-        this.neighborMineCount = 0;
+        this.index = board.getModel().index(row, col);
         this.btn = new Button();
+        this.graphic = board.getAtlas().createView(SpriteAtlas.TILE);
+        this.btn.setGraphic(this.graphic);
     }
 
     /**
-     * Reveals the cell and updates its appearance.
-     * If the cell contains a mine, it will display the mine; otherwise, it displays the
-     * number of neighboring mines. If the cell has no neighboring mines, it reveals
-     * adjacent cells as well.
+     * Reveals the cell.
+     * If the cell has no neighboring mines, the board reveals adjacent cells as well.
      */
     public void revealCell() {
-        if (!this.isRevealed && this.board.getGameIsOn() == 1) {
-            this.isRevealed = true;
-
-            if (this.hasMine) {
-                this.btn.setGraphic(new ImageView(this.board.getImages().get("bomb")));
-
-            } else {
-                this.btn.setGraphic(new ImageView(this.board.getImages().get(
-                        Integer.toString(this.neighborMineCount))));
-
-                if (this.neighborMineCount == 0) {
-                    this.board.revealNeighbors(row, col);
-                }
-
-                if (this.isFlagged) {
-                    this.board.updateMinesLabel(1);
-                }
-
-            }
-            this.board.isGameInProgress();
-        }
+        this.board.revealCell(this.index);
     }
 
     /**
@@ -70,17 +42,22 @@ public class Cell {
      * If the cell is already flagged, it unflags it.
      */
     public void flag() {
-        if (this.board.getGameIsOn() == 1) {
-            if (!this.isRevealed && this.isFlagged) {
-                this.btn.setGraphic(new ImageView(this.board.getImages().get("tile")));
-                this.isFlagged = false;
-                this.board.updateMinesLabel(1);
-            } else if (!this.isRevealed && Integer.parseInt(this.board.getMinesLabel().trim()) > 0) {
-                this.btn.setGraphic(new ImageView(this.board.getImages().get("flag")));
-                this.isFlagged = true;
-                this.board.updateMinesLabel(-1);
-            }
-        }
+        this.board.flagCell(this.index);
+    }
+
+    /**
+     * Chords the cell: if it is a number with as many flags around it as mines, the board
+     * reveals its other neighbors.
+     */
+    public void chord() {
+        this.board.chordCell(this.index);
+    }
+
+    /**
+     * Updates the appearance of the cell from the board's state.
+     */
+    public void refresh() {
+        this.board.getAtlas().show(this.graphic, this.board.getSprite(this.index));
     }
 
     /**
@@ -98,7 +75,7 @@ public class Cell {
      * @return True if the cell is revealed, false otherwise.
      */
     public boolean getIsRevealed() {
-        return this.isRevealed;
+        return this.board.getModel().isRevealed(this.index);
     }
 
     /**
@@ -107,34 +84,6 @@ public class Cell {
      * @return True if the cell has a mine, false otherwise.
      */
     public boolean getHasMine() {
-        return this.hasMine;
-    }
-
-    /**
-     * Sets whether the cell has a mine.
-     *
-     * @param hasMine True if the cell has a mine, false otherwise.
-     */
-    public void setHasMine(boolean hasMine) {
-        this.hasMine = hasMine;
-    }
-
-    /**
-     * Increments the count of neighboring mines for the cell.
-     */
-    public void incrementNeighborMineCount() {
-        this.neighborMineCount++;
-    }
-
-    /**
-     * Resets the cell to its initial state.
-     * Clears any revealed state, mine flag, and neighboring mine count.
-     */
-    public void resetCell() {
-        this.isRevealed = false;
-        this.hasMine = false;
-        this.neighborMineCount = 0;
-        this.isFlagged = false;
-        this.btn.setGraphic(new ImageView(this.board.getImages().get("tile")));
+        return this.board.getModel().hasMine(this.index);
     }
 }
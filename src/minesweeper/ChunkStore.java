@@ -0,0 +1,168 @@
+package minesweeper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the revealed and flagged cells of evicted chunks of the {@link EndlessWorld} on disk.
+ * Records are appended to a single file as [chunk key, payload length, run-length encoded
+ * revealed bits, run-length encoded flagged bits]; only the file offset of each chunk's latest
+ * record stays in memory. When superseded records make up more than half the file, it is
+ * compacted by rewriting only the live records.
+ */
+public class ChunkStore implements Closeable {
+    private static final int RECORD_HEADER = Long.BYTES + Integer.BYTES;
+    private static final long MIN_COMPACT_BYTES = 1 << 20;  // Smaller files are never compacted
+
+    private final Path file;
+    private final int bits;     // Cells per chunk
+    private final Map<Long, Long> offsets;  // Offset of the latest record of each chunk
+    private final BinaryCodec.Output out;
+    private final ByteBuffer header;
+    private FileChannel channel;
+    private long liveBytes;     // Size of the latest records
+
+    /**
+     * Creates an empty store, replacing any file left at the given path.
+     *
+     * @param file The file to store chunks in.
+     * @param bits The number of cells in a chunk.
+     * @throws IOException if the file cannot be created.
+     */
+    public ChunkStore(Path file, int bits) throws IOException {
+        this.file = file;
+        this.bits = bits;
+        this.offsets = new HashMap<>();
+        this.out = new BinaryCodec.Output();
+        this.header = ByteBuffer.allocate(RECORD_HEADER);
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Appends the state of a chunk, superseding any earlier record of it.
+     *
+     * @param key      The key of the chunk.
+     * @param revealed The revealed cells of the chunk.
+     * @param flagged  The flagged cells of the chunk.
+     * @throws IOException if the record cannot be written.
+     */
+    public void store(long key, long[] revealed, long[] flagged) throws IOException {
+        this.out.clear();
+        this.out.putLong(key);
+        this.out.putInt(0);     // Payload length, filled in below
+        this.out.putBits(revealed, this.bits);
+        this.out.putBits(flagged, this.bits);
+        ByteBuffer record = this.out.toByteBuffer();
+        record.putInt(Long.BYTES, record.remaining() - RECORD_HEADER);
+
+        long offset = this.channel.size();
+        this.write(record, offset);
+        Long previous = this.offsets.put(key, offset);
+        if (previous != null) {
+            this.liveBytes -= this.recordSize(previous);
+        }
+        this.liveBytes += this.out.size();
+
+        if (this.channel.size() > MIN_COMPACT_BYTES && this.liveBytes * 2 < this.channel.size()) {
+            this.compact();
+        }
+    }
+
+    /**
+     * Reads the stored state of a chunk.
+     *
+     * @param key      The key of the chunk.
+     * @param revealed The bitset to fill with the revealed cells.
+     * @param flagged  The bitset to fill with the flagged cells.
+     * @return True if the chunk was stored, false if it was never modified.
+     * @throws IOException if the record cannot be read.
+     */
+    public boolean load(long key, long[] revealed, long[] flagged) throws IOException {
+        Long offset = this.offsets.get(key);
+        if (offset == null) {
+            return false;
+        }
+        int length = this.recordSize(offset) - RECORD_HEADER;
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        this.read(payload, offset + RECORD_HEADER);
+        payload.flip();
+        BinaryCodec.getBits(payload, revealed, this.bits);
+        BinaryCodec.getBits(payload, flagged, this.bits);
+        return true;
+    }
+
+    /**
+     * Rewrites the file with only the latest record of each chunk.
+     */
+    private void compact() throws IOException {
+        Path temp = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+        try (FileChannel target = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            for (Map.Entry<Long, Long> entry : this.offsets.entrySet()) {
+                int size = this.recordSize(entry.getValue());
+                long copied = 0;
+                while (copied < size) {
+                    copied += this.channel.transferTo(entry.getValue() + copied, size - copied, target);
+                }
+                entry.setValue(position);
+                position += size;
+            }
+        }
+        this.channel.close();
+        Files.move(temp, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        this.channel = FileChannel.open(this.file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Reads the total size of the record at an offset from its header.
+     */
+    private int recordSize(long offset) throws IOException {
+        this.header.clear();
+        this.read(this.header, offset);
+        return RECORD_HEADER + this.header.getInt(Long.BYTES);
+    }
+
+    private void read(ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (this.channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Truncated chunk record at " + offset);
+            }
+        }
+    }
+
+    private void write(ByteBuffer buffer, long offset) throws IOException {
+        int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            this.channel.write(buffer, offset + buffer.position() - start);
+        }
+    }
+
+    /**
+     * Gets the number of chunks held on disk.
+     *
+     * @return The number of stored chunks.
+     */
+    public int size() {
+        return this.offsets.size();
+    }
+
+    /**
+     * Closes and deletes the file; the world it belongs to is gone.
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+        Files.deleteIfExists(this.file);
+    }
+}
@@ -7,6 +7,8 @@ public class Difficulty {
     public static final String EASY = "Easy";
     public static final String MEDIUM = "Medium";
     public static final String HARD = "Hard";
+    public static final String HUGE = "Huge";   // Too many cells for one button each, see CanvasBoardView
+    public static final String ENDLESS = "Endless";   // Unbounded board, see EndlessWorld
 
     /**
      * Returns an array containing the size and number of mines based on the specified difficulty level.
@@ -21,6 +23,7 @@ public class Difficulty {
             case EASY -> new int[]{10, 10};
             case MEDIUM -> new int[]{16, 40};
             case HARD -> new int[]{20, 70};
+            case HUGE -> new int[]{100, 2000};
             default -> throw new IllegalArgumentException("Unknown difficulty: " + difficulty);
         };
     }
@@ -0,0 +1,206 @@
+package minesweeper;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.text.Font;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * The game board of the endless mode: an unbounded {@link EndlessWorld} explored through a
+ * scrolling {@link EndlessBoardView}. There is nothing to win; the score is the number of safe
+ * cells revealed before hitting a mine.
+ */
+public class EndlessBoard implements Closeable {
+    public static final Path CHUNK_FILE = Board.REPLAY_DIR.resolveSibling("endless.chunks");
+
+    private EndlessWorld world;     // Headless state of the current world
+    private EndlessBoardView view;  // Renders the cells
+    private final Map<String, Image> images;  // Images for different cell states, shared by all boards
+    private final SpriteAtlas atlas;  // The cell and face images packed into one image, shared by all boards
+
+    private final Label scoreLabel;   // Label to display the number of cells revealed
+    private final Label timerLabel;   // Label to display elapsed time
+    private final Button btnImg;  // Button to start a new world
+    private final ImageView face;   // Graphic of the restart button
+
+    /**
+     * Constructs an endless board with a new world.
+     *
+     * @throws IOException if the chunk file cannot be created.
+     */
+    public EndlessBoard() throws IOException {
+        this.images = ImageCache.getInstance().getImages();
+        this.atlas = ImageCache.getInstance().getAtlas();
+
+        this.scoreLabel = new Label("000");
+        this.timerLabel = new Label("000");
+        this.btnImg = new Button();
+        this.face = this.atlas.createView(SpriteAtlas.YELLOW);
+
+        this.world = new EndlessWorld(new SplittableRandom().nextLong(), CHUNK_FILE);
+    }
+
+    /**
+     * Creates the graphical representation of the endless board.
+     *
+     * @return The BorderPane containing the game board.
+     */
+    public BorderPane create_board() {
+        GameClock.getInstance().reset(this.timerLabel);
+        GameClock.getInstance().start();
+
+        BorderPane layout = new BorderPane();
+        this.view = new EndlessBoardView(this);
+
+        // Create header with score label, timer label and restart button
+        BorderPane header = new BorderPane();
+        HBox scoreBox = new HBox();
+        HBox timerBox = new HBox();
+
+        Label scoreLabelImage = new Label();
+        scoreLabelImage.setGraphic(this.atlas.createView(SpriteAtlas.SAFE_TILE));
+        this.scoreLabel.setFont(Font.font(20));
+        scoreBox.getChildren().addAll(scoreLabelImage, scoreLabel);
+        HBox.setMargin(scoreLabel, new Insets(0, 0, 0, 5));
+
+        Label timerLabelImage = new Label();
+        timerLabelImage.setGraphic(this.atlas.createView(SpriteAtlas.TIMER));
+        this.timerLabel.setFont(Font.font(20));
+        timerBox.getChildren().addAll(timerLabel, timerLabelImage);
+        HBox.setMargin(timerLabel, new Insets(0, 10, 0, 0));
+
+        this.btnImg.setGraphic(this.face);
+        this.btnImg.setMaxSize(images.get("yellow").getWidth(), images.get("yellow").getHeight());
+        this.btnImg.setMinSize(images.get("yellow").getWidth(), images.get("yellow").getHeight());
+        this.btnImg.setOnAction(e -> restartGame());
+
+        scoreBox.setAlignment(Pos.CENTER_LEFT);
+        timerBox.setAlignment(Pos.CENTER_RIGHT);
+
+        header.setLeft(scoreBox);
+        header.setRight(timerBox);
+        header.setCenter(this.btnImg);
+
+        header.setMinHeight(50);
+        header.setStyle("-fx-border-color: gray; -fx-border-width: 2px; -fx-border-style: solid;");
+        header.setPadding(new Insets(3, 3, 3, 3));
+        BorderPane.setMargin(header, new Insets(5, 0, 5, 0));
+
+        layout.setTop(header);
+        layout.setCenter(this.view.getNode());
+
+        return layout;
+    }
+
+    /**
+     * Reveals a cell and, when it has no neighboring mines, the empty region around it.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     */
+    public void revealCell(int row, int col) {
+        if (this.world.open(row, col) == 0) {
+            return;
+        }
+
+        IntList rows = this.world.getOpenedRows();
+        IntList cols = this.world.getOpenedCols();
+        for (int i = 0; i < rows.size(); i++) {
+            this.view.refreshCell(rows.get(i), cols.get(i));
+        }
+        this.scoreLabel.setText(String.format("%03d", this.world.getRevealed()));
+
+        if (this.world.getState() == BoardModel.LOST) {
+            GameClock.getInstance().pause();
+            this.atlas.show(this.face, SpriteAtlas.RED);
+            this.view.refreshAll();
+        }
+    }
+
+    /**
+     * Toggles the flag on a cell that is not revealed.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     */
+    public void flagCell(int row, int col) {
+        if (this.world.getState() != BoardModel.IN_PROGRESS || this.world.isRevealed(row, col)) {
+            return;
+        }
+        this.world.setFlagged(row, col, !this.world.isFlagged(row, col));
+        this.view.refreshCell(row, col);
+    }
+
+    /**
+     * Chooses the image a cell is drawn with. Once a mine was hit, every mine in view is shown.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return The id of the cell's sprite in the {@link SpriteAtlas}.
+     */
+    public int getSprite(int row, int col) {
+        if (this.world.isRevealed(row, col)) {
+            return this.world.hasMine(row, col) ? SpriteAtlas.BOMB
+                    : SpriteAtlas.number(this.world.getNeighborMineCount(row, col));
+        }
+        if (this.world.getState() == BoardModel.LOST && this.world.hasMine(row, col)) {
+            return SpriteAtlas.BOMB;
+        }
+        if (this.world.isFlagged(row, col)) {
+            return SpriteAtlas.FLAG;
+        }
+        if (row == EndlessWorld.START && col == EndlessWorld.START) {
+            return SpriteAtlas.SAFE_TILE;
+        }
+        return SpriteAtlas.TILE;
+    }
+
+    /**
+     * Discards the current world and starts a new one.
+     */
+    public void restartGame() {
+        try {
+            this.world.close();
+            this.world = new EndlessWorld(new SplittableRandom().nextLong(), CHUNK_FILE);
+        } catch (IOException e) {
+            System.err.println("Failed to create a new world: " + e.getMessage());
+            return;
+        }
+        GameClock.getInstance().reset(this.timerLabel);
+        GameClock.getInstance().start();
+        this.scoreLabel.setText("000");
+        this.atlas.show(this.face, SpriteAtlas.YELLOW);
+        this.view.recenter();
+    }
+
+    public EndlessWorld getWorld() {
+        return this.world;
+    }
+
+    public SpriteAtlas getAtlas() {
+        return this.atlas;
+    }
+
+    /**
+     * Discards the world and deletes its chunk file.
+     */
+    @Override
+    public void close() {
+        try {
+            this.world.close();
+        } catch (IOException e) {
+            System.err.println("Failed to delete the world: " + e.getMessage());
+        }
+    }
+}
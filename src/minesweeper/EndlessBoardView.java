@@ -0,0 +1,180 @@
+package minesweeper;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.Pane;
+
+/**
+ * Renders the endless board onto a canvas, like {@link CanvasBoardView} but without scroll bars:
+ * the world has no edges. Only the tiles inside the viewport are painted, so only the chunks
+ * around the viewport are ever generated. Scroll to pan (Shift+scroll pans horizontally),
+ * Ctrl+scroll to zoom, and use the arrow keys to move a screen at a time.
+ */
+public class EndlessBoardView {
+    private static final double GAP = 2;    // Space between tiles, as in the grid view
+    private static final double VIEWPORT = 640;   // Initial viewport size
+    private static final double MIN_ZOOM = 0.25;
+    private static final double MAX_ZOOM = 2;
+    private static final double ZOOM_STEP = 1.1;
+
+    private final EndlessBoard board;
+    private final SpriteAtlas atlas;
+    private final double tileSize;  // Unscaled tile size in pixels
+
+    private final Canvas canvas;
+    private final GraphicsContext gc;
+    private final Pane viewport;    // Holds the canvas and defines the visible area
+
+    private double zoom;    // Current scale of the tiles
+    private double originX;     // World position of the top-left corner of the viewport, in pixels
+    private double originY;
+
+    /**
+     * Constructs the view for the given endless board, centered on the start cell.
+     *
+     * @param board The endless game board.
+     */
+    public EndlessBoardView(EndlessBoard board) {
+        this.board = board;
+        this.atlas = board.getAtlas();
+        this.tileSize = this.atlas.getViewport(SpriteAtlas.TILE).getWidth();
+        this.zoom = 1;
+        this.originX = (EndlessWorld.START + 0.5) * step() - VIEWPORT / 2;
+        this.originY = this.originX;
+
+        this.canvas = new Canvas();
+        this.gc = this.canvas.getGraphicsContext2D();
+        this.gc.setImageSmoothing(false);
+        this.viewport = new Pane(this.canvas);
+        this.viewport.setPrefSize(VIEWPORT, VIEWPORT);
+        this.viewport.setFocusTraversable(true);
+
+        // Keep the canvas the size of the viewport
+        this.viewport.widthProperty().addListener(o -> this.layoutCanvas());
+        this.viewport.heightProperty().addListener(o -> this.layoutCanvas());
+
+        // Map mouse coordinates back to cells
+        this.canvas.setOnMouseClicked(e -> {
+            this.viewport.requestFocus();
+            int row = (int) Math.floor((e.getY() + this.originY) / step());
+            int col = (int) Math.floor((e.getX() + this.originX) / step());
+            if (e.getButton() == MouseButton.PRIMARY) {
+                this.board.revealCell(row, col);
+            } else if (e.getButton() == MouseButton.SECONDARY) {
+                this.board.flagCell(row, col);
+            }
+        });
+
+        this.canvas.setOnScroll(e -> {
+            if (e.isControlDown()) {
+                this.zoomAt(e.getDeltaY() > 0 ? ZOOM_STEP : 1 / ZOOM_STEP, e.getX(), e.getY());
+            } else if (e.isShiftDown()) {
+                this.panBy(-(e.getDeltaX() != 0 ? e.getDeltaX() : e.getDeltaY()), 0);
+            } else {
+                this.panBy(-e.getDeltaX(), -e.getDeltaY());
+            }
+            e.consume();
+        });
+
+        this.viewport.setOnKeyPressed(e -> {
+            switch (e.getCode()) {
+                case LEFT -> this.panBy(-this.canvas.getWidth() / 2, 0);
+                case RIGHT -> this.panBy(this.canvas.getWidth() / 2, 0);
+                case UP -> this.panBy(0, -this.canvas.getHeight() / 2);
+                case DOWN -> this.panBy(0, this.canvas.getHeight() / 2);
+                default -> {
+                    return;
+                }
+            }
+            e.consume();
+        });
+    }
+
+    public Node getNode() {
+        return this.viewport;
+    }
+
+    /**
+     * Redraws a cell if it is inside the viewport.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     */
+    public void refreshCell(int row, int col) {
+        double x = col * step() - this.originX;
+        double y = row * step() - this.originY;
+        if (x + step() > 0 && x < this.canvas.getWidth() && y + step() > 0 && y < this.canvas.getHeight()) {
+            this.drawTile(row, col, x, y);
+        }
+    }
+
+    /**
+     * Paints every tile that is at least partly inside the viewport.
+     */
+    public void refreshAll() {
+        double step = step();
+        this.gc.clearRect(0, 0, this.canvas.getWidth(), this.canvas.getHeight());
+
+        int firstCol = (int) Math.floor(this.originX / step);
+        int lastCol = (int) Math.floor((this.originX + this.canvas.getWidth()) / step);
+        int firstRow = (int) Math.floor(this.originY / step);
+        int lastRow = (int) Math.floor((this.originY + this.canvas.getHeight()) / step);
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                this.drawTile(row, col, col * step - this.originX, row * step - this.originY);
+            }
+        }
+    }
+
+    /**
+     * Moves the viewport back to the start cell, e.g. when a new world begins.
+     */
+    public void recenter() {
+        this.originX = (EndlessWorld.START + 0.5) * step() - this.canvas.getWidth() / 2;
+        this.originY = (EndlessWorld.START + 0.5) * step() - this.canvas.getHeight() / 2;
+        this.refreshAll();
+    }
+
+    private void drawTile(int row, int col, double x, double y) {
+        double size = this.tileSize * this.zoom;
+        Rectangle2D source = this.atlas.getViewport(this.board.getSprite(row, col));
+        this.gc.drawImage(this.atlas.getImage(), source.getMinX(), source.getMinY(), source.getWidth(),
+                source.getHeight(), x, y, size, size);
+    }
+
+    private void panBy(double dx, double dy) {
+        this.originX += dx;
+        this.originY += dy;
+        this.refreshAll();
+    }
+
+    /**
+     * Scales the tiles while keeping the point under the cursor in place.
+     */
+    private void zoomAt(double factor, double x, double y) {
+        double newZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, this.zoom * factor));
+        if (newZoom == this.zoom) {
+            return;
+        }
+        double worldX = (x + this.originX) / step();
+        double worldY = (y + this.originY) / step();
+        this.zoom = newZoom;
+        this.originX = worldX * step() - x;
+        this.originY = worldY * step() - y;
+        this.refreshAll();
+    }
+
+    private void layoutCanvas() {
+        this.canvas.setWidth(this.viewport.getWidth());
+        this.canvas.setHeight(this.viewport.getHeight());
+        this.refreshAll();
+    }
+
+    private double step() {
+        return (this.tileSize + GAP) * this.zoom;
+    }
+}
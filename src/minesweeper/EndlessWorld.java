@@ -0,0 +1,327 @@
+package minesweeper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * The headless state of an endless board, split into square chunks addressed by signed
+ * row and column.
+ * <p>
+ * A chunk's mines are generated the first time the chunk is touched, from the world seed and the
+ * chunk coordinates, so the same chunk always gets the same mines. Resident chunks are kept in an
+ * access-ordered LRU map of bounded size: an evicted chunk nobody revealed or flagged in is simply
+ * dropped and regenerated later, while a modified one is written to the {@link ChunkStore} and
+ * read back when it is needed again. Memory therefore stays bounded however far the player explores;
+ * a modified chunk the store fails to take stays in memory until a later eviction succeeds.
+ * The start cell, in the middle of chunk (0, 0), is always clear of mines around it.
+ */
+public class EndlessWorld implements Closeable {
+    public static final int CHUNK_SHIFT = 5;
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;  // Rows and columns per chunk
+    public static final int START = CHUNK_SIZE / 2;     // Row and column of the start cell
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int CHUNK_CELLS = CHUNK_SIZE * CHUNK_SIZE;
+    private static final int MINES_PER_CHUNK = 160;     // About 16% of the cells
+    private static final int MAX_RESIDENT = 512;    // Chunks kept in memory
+
+    private final long seed;    // Seed of the world
+    private final ChunkStore store;
+    private final LinkedHashMap<Long, Chunk> chunks;
+    private Chunk lastChunk;    // The chunk of the previous lookup, to skip the map for neighbors
+
+    private final IntList cascadeRows;  // Cells still to expand in a cascade
+    private final IntList cascadeCols;
+    private final IntList openedRows;   // Cells opened by the last call to open
+    private final IntList openedCols;
+
+    private int state;  // BoardModel.IN_PROGRESS, or BoardModel.LOST once a mine was revealed
+    private long revealed;  // Number of safe cells revealed
+    private long flags;     // Number of flags placed
+
+    /**
+     * Creates a world.
+     *
+     * @param seed The seed the mines of every chunk are derived from.
+     * @param file The file modified chunks are moved to when they are evicted.
+     * @throws IOException if the chunk file cannot be created.
+     */
+    public EndlessWorld(long seed, Path file) throws IOException {
+        this.seed = seed;
+        this.store = new ChunkStore(file, CHUNK_CELLS);
+        this.chunks = new LinkedHashMap<>(MAX_RESIDENT * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Chunk> eldest) {
+                return size() > MAX_RESIDENT && evict(eldest.getValue());
+            }
+        };
+        this.cascadeRows = new IntList();
+        this.cascadeCols = new IntList();
+        this.openedRows = new IntList();
+        this.openedCols = new IntList();
+        this.state = BoardModel.IN_PROGRESS;
+    }
+
+    /**
+     * Reveals a cell and, when it has no neighboring mines, the empty region around it.
+     * Like {@link FloodFill}, the cascade runs iteratively and removes flags it opens.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return The number of cells opened; their coordinates are in {@link #getOpenedRows()}
+     *         and {@link #getOpenedCols()}.
+     */
+    public int open(int row, int col) {
+        this.openedRows.clear();
+        this.openedCols.clear();
+        if (this.state != BoardModel.IN_PROGRESS || this.isRevealed(row, col)) {
+            return 0;
+        }
+
+        this.reveal(row, col);
+        while (!this.cascadeRows.isEmpty()) {
+            int r = this.cascadeRows.removeLast();
+            int c = this.cascadeCols.removeLast();
+            for (int i = r - 1; i <= r + 1; i++) {
+                for (int j = c - 1; j <= c + 1; j++) {
+                    if (!this.isRevealed(i, j)) {
+                        this.reveal(i, j);
+                    }
+                }
+            }
+        }
+        return this.openedRows.size();
+    }
+
+    /**
+     * Marks a cell as revealed and queues it for expansion if it has no neighboring mines.
+     */
+    private void reveal(int row, int col) {
+        Chunk chunk = this.chunk(row, col);
+        int bit = bit(row, col);
+        Bits.set(chunk.revealed, bit);
+        chunk.modified = true;
+        if (Bits.get(chunk.flagged, bit)) {
+            Bits.clear(chunk.flagged, bit);
+            this.flags--;
+        }
+        this.openedRows.add(row);
+        this.openedCols.add(col);
+
+        if (Bits.get(chunk.mines, bit)) {
+            this.state = BoardModel.LOST;
+        } else {
+            this.revealed++;
+            if (this.getNeighborMineCount(row, col) == 0) {
+                this.cascadeRows.add(row);
+                this.cascadeCols.add(col);
+            }
+        }
+    }
+
+    /**
+     * Sets or removes the flag on a cell.
+     *
+     * @param row     The row of the cell.
+     * @param col     The column of the cell.
+     * @param flagged True to flag the cell, false to remove the flag.
+     */
+    public void setFlagged(int row, int col, boolean flagged) {
+        Chunk chunk = this.chunk(row, col);
+        int bit = bit(row, col);
+        if (flagged == Bits.get(chunk.flagged, bit)) {
+            return;
+        }
+        if (flagged) {
+            Bits.set(chunk.flagged, bit);
+            this.flags++;
+        } else {
+            Bits.clear(chunk.flagged, bit);
+            this.flags--;
+        }
+        chunk.modified = true;
+    }
+
+    public boolean hasMine(int row, int col) {
+        return Bits.get(this.chunk(row, col).mines, bit(row, col));
+    }
+
+    public boolean isRevealed(int row, int col) {
+        return Bits.get(this.chunk(row, col).revealed, bit(row, col));
+    }
+
+    public boolean isFlagged(int row, int col) {
+        return Bits.get(this.chunk(row, col).flagged, bit(row, col));
+    }
+
+    /**
+     * Counts the mines around a cell, generating neighboring chunks if needed.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return The number of neighboring mines.
+     */
+    public int getNeighborMineCount(int row, int col) {
+        int count = 0;
+        for (int i = row - 1; i <= row + 1; i++) {
+            for (int j = col - 1; j <= col + 1; j++) {
+                if ((i != row || j != col) && this.hasMine(i, j)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the chunk holding a cell, loading or generating it if it is not resident.
+     */
+    private Chunk chunk(int row, int col) {
+        int chunkRow = row >> CHUNK_SHIFT;
+        int chunkCol = col >> CHUNK_SHIFT;
+        Chunk chunk = this.lastChunk;
+        if (chunk != null && chunk.row == chunkRow && chunk.col == chunkCol) {
+            return chunk;
+        }
+        if (chunk != null) {
+            // Its lookups skipped the map, so record its last use before moving on
+            this.chunks.get(key(chunk.row, chunk.col));
+        }
+
+        long key = key(chunkRow, chunkCol);
+        chunk = this.chunks.get(key);
+        if (chunk == null) {
+            chunk = this.createChunk(chunkRow, chunkCol);
+            this.chunks.put(key, chunk);
+        }
+        this.lastChunk = chunk;
+        return chunk;
+    }
+
+    /**
+     * Generates a chunk's mines and restores its stored state, if it has any.
+     */
+    private Chunk createChunk(int chunkRow, int chunkCol) {
+        Chunk chunk = new Chunk(chunkRow, chunkCol);
+        long key = key(chunkRow, chunkCol);
+
+        // Mix the chunk key into the world seed so every chunk has its own stream
+        long chunkSeed = new SplittableRandom(this.seed + key * 0x9E3779B97F4A7C15L).nextLong();
+        int[] mines = chunkRow == 0 && chunkCol == 0
+                ? MinePlacer.place(CHUNK_SIZE, CHUNK_SIZE, MINES_PER_CHUNK, START * CHUNK_SIZE + START, chunkSeed)
+                : MinePlacer.place(CHUNK_SIZE, CHUNK_SIZE, MINES_PER_CHUNK, chunkSeed);
+        for (int mine : mines) {
+            Bits.set(chunk.mines, mine);
+        }
+
+        try {
+            this.store.load(key, chunk.revealed, chunk.flagged);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return chunk;
+    }
+
+    /**
+     * Writes a chunk leaving memory to the store if it changed since it was loaded. This runs in
+     * the middle of a map insertion during a click, so a failure is reported, not thrown: the
+     * chunk then stays resident and its eviction is tried again later.
+     *
+     * @return True if the chunk can be dropped from memory.
+     */
+    private boolean evict(Chunk chunk) {
+        if (chunk.modified) {
+            try {
+                this.store.store(key(chunk.row, chunk.col), chunk.revealed, chunk.flagged);
+            } catch (IOException e) {
+                System.err.println("Failed to store an endless chunk: " + e.getMessage());
+                return false;
+            }
+        }
+        if (chunk == this.lastChunk) {
+            this.lastChunk = null;
+        }
+        return true;
+    }
+
+    private static long key(int chunkRow, int chunkCol) {
+        return ((long) chunkRow << 32) | (chunkCol & 0xFFFFFFFFL);
+    }
+
+    private static int bit(int row, int col) {
+        return (row & CHUNK_MASK) << CHUNK_SHIFT | (col & CHUNK_MASK);
+    }
+
+    public IntList getOpenedRows() {
+        return this.openedRows;
+    }
+
+    public IntList getOpenedCols() {
+        return this.openedCols;
+    }
+
+    public int getState() {
+        return this.state;
+    }
+
+    public long getRevealed() {
+        return this.revealed;
+    }
+
+    public long getFlags() {
+        return this.flags;
+    }
+
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Gets the number of chunks in memory, at most {@value #MAX_RESIDENT}.
+     *
+     * @return The number of resident chunks.
+     */
+    public int getResidentChunks() {
+        return this.chunks.size();
+    }
+
+    /**
+     * Gets the number of modified chunks held on disk.
+     *
+     * @return The number of stored chunks.
+     */
+    public int getStoredChunks() {
+        return this.store.size();
+    }
+
+    /**
+     * Discards the world and deletes its chunk file.
+     */
+    @Override
+    public void close() throws IOException {
+        this.chunks.clear();
+        this.lastChunk = null;
+        this.store.close();
+    }
+
+    /**
+     * A square of cells and its state.
+     */
+    private static final class Chunk {
+        private final int row;  // Chunk coordinates
+        private final int col;
+        private final long[] mines = Bits.create(CHUNK_CELLS);
+        private final long[] revealed = Bits.create(CHUNK_CELLS);
+        private final long[] flagged = Bits.create(CHUNK_CELLS);
+        private boolean modified;   // Changed since it was generated or loaded
+
+        Chunk(int row, int col) {
+            this.row = row;
+            this.col = col;
+        }
+    }
+}
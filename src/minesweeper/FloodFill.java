@@ -0,0 +1,198 @@
+package minesweeper;
+
+/**
+ * Iterative scanline flood-fill that opens a cell and, if it has no neighboring mines,
+ * the whole zero region around it together with the region's numbered border.
+ * Work is kept on an explicit int stack with a visited bitset, so opening very large
+ * regions cannot overflow the thread stack and costs time proportional to the cells opened.
+ */
+public class FloodFill {
+    private final BoardModel model;
+    private final int width;
+    private final int height;
+
+    private final long[] visited;   // Zero cells already queued or absorbed in a span
+    private final IntList marked;   // Indices set in visited, cleared after each fill
+    private final IntList stack;    // Seeds of spans still to be expanded
+    private final IntList opened;   // Cells opened by the last fill
+    private final IntList chorded;  // Cells opened by the last chord
+    private final IntList unflagged;    // Cells of the last fill or chord that lost their flag
+
+    /**
+     * Constructs a flood-fill engine for the given board.
+     *
+     * @param model The board to open cells on.
+     */
+    public FloodFill(BoardModel model) {
+        this.model = model;
+        this.width = model.getWidth();
+        this.height = model.getHeight();
+        this.visited = Bits.create(model.getCells());
+        this.marked = new IntList();
+        this.stack = new IntList();
+        this.opened = new IntList();
+        this.chorded = new IntList();
+        this.unflagged = new IntList();
+    }
+
+    /**
+     * Opens a cell and cascades through neighboring cells with no neighboring mines.
+     * Flagged cells reached by the cascade are opened and lose their flag.
+     *
+     * @param start The index of the cell to open.
+     * @return The cells newly opened, in the order they were opened. The list is reused
+     *         by the next call.
+     */
+    public IntList open(int start) {
+        this.opened.clear();
+        this.unflagged.clear();
+        this.fill(start, this.opened);
+        return this.opened;
+    }
+
+    /**
+     * Opens a cell and its zero region, appending the opened cells to the given list.
+     */
+    private void fill(int start, IntList out) {
+        if (this.model.isRevealed(start)) {
+            return;
+        }
+        this.revealIfHidden(start, out);
+        if (!this.isZero(start)) {
+            return;
+        }
+
+        this.mark(start);
+        this.stack.add(start);
+        while (!this.stack.isEmpty()) {
+            int seed = this.stack.removeLast();
+            int row = seed / width;
+            int rowStart = row * width;
+
+            // Grow the span of zero cells along the row
+            int left = seed - rowStart;
+            while (left > 0 && this.isZero(rowStart + left - 1) && !Bits.get(this.visited, rowStart + left - 1)) {
+                left--;
+                this.mark(rowStart + left);
+            }
+            int right = seed - rowStart;
+            while (right < width - 1 && this.isZero(rowStart + right + 1)
+                    && !Bits.get(this.visited, rowStart + right + 1)) {
+                right++;
+                this.mark(rowStart + right);
+            }
+
+            // Every cell touching the span is opened; zero cells above and below seed new spans
+            int from = Math.max(0, left - 1);
+            int to = Math.min(width - 1, right + 1);
+            for (int r = Math.max(0, row - 1); r <= Math.min(height - 1, row + 1); r++) {
+                int base = r * width;
+                for (int c = from; c <= to; c++) {
+                    int i = base + c;
+                    this.revealIfHidden(i, out);
+                    if (r != row && this.isZero(i) && !Bits.get(this.visited, i)) {
+                        this.mark(i);
+                        this.stack.add(i);
+                    }
+                }
+            }
+        }
+
+        // Clear only the bits this fill set, so the cost stays proportional to the region
+        for (int i = 0; i < this.marked.size(); i++) {
+            Bits.clear(this.visited, this.marked.get(i));
+        }
+        this.marked.clear();
+    }
+
+    /**
+     * Checks whether a cell can be chorded: it is a revealed number with exactly as many
+     * flags around it as neighboring mines.
+     *
+     * @param index The index of the cell.
+     * @return True if chording the cell would open its other neighbors.
+     */
+    public boolean canChord(int index) {
+        if (!this.model.isRevealed(index) || this.model.hasMine(index)) {
+            return false;
+        }
+        int count = this.model.getNeighborMineCount(index);
+        if (count == 0) {
+            return false;
+        }
+        int row = index / width;
+        int col = index % width;
+        int flags = 0;
+        for (int r = Math.max(0, row - 1); r <= Math.min(height - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(width - 1, col + 1); c++) {
+                if (this.model.isFlagged(r * width + c)) {
+                    flags++;
+                }
+            }
+        }
+        return flags == count;
+    }
+
+    /**
+     * Chords a satisfied number: opens every unflagged hidden neighbor, cascading as
+     * {@link #open(int)} does. Does nothing if {@link #canChord(int)} is false.
+     *
+     * @param index The index of the number cell.
+     * @return The cells newly opened by all the neighbors together. The list is reused
+     *         by the next call.
+     */
+    public IntList chord(int index) {
+        this.chorded.clear();
+        this.unflagged.clear();
+        if (this.canChord(index)) {
+            int row = index / width;
+            int col = index % width;
+            for (int r = Math.max(0, row - 1); r <= Math.min(height - 1, row + 1); r++) {
+                for (int c = Math.max(0, col - 1); c <= Math.min(width - 1, col + 1); c++) {
+                    int i = r * width + c;
+                    if (!this.model.isRevealed(i) && !this.model.isFlagged(i)) {
+                        this.fill(i, this.chorded);
+                    }
+                }
+            }
+        }
+        return this.chorded;
+    }
+
+    /**
+     * Gets the number of flags removed by the last call to {@link #open(int)} or {@link #chord(int)}.
+     *
+     * @return The number of flagged cells the last fill opened.
+     */
+    public int getFlagsCleared() {
+        return this.unflagged.size();
+    }
+
+    /**
+     * Gets the cells opened by the last call to {@link #open(int)} or {@link #chord(int)} that
+     * had a flag, e.g. so an undo can put the flags back.
+     *
+     * @return The unflagged cells. The list is reused by the next call.
+     */
+    public IntList getUnflagged() {
+        return this.unflagged;
+    }
+
+    private boolean isZero(int index) {
+        return this.model.getNeighborMineCount(index) == 0 && !this.model.hasMine(index);
+    }
+
+    private void mark(int index) {
+        Bits.set(this.visited, index);
+        this.marked.add(index);
+    }
+
+    private void revealIfHidden(int index, IntList out) {
+        if (!this.model.isRevealed(index)) {
+            if (this.model.reveal(index)) {
+                this.unflagged.add(index);
+            }
+            out.add(index);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package minesweeper;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.control.Label;
+
+/**
+ * The application-wide game clock.
+ * Elapsed time is measured with System.nanoTime() to millisecond precision, and the
+ * timer label is refreshed from an AnimationTimer on the JavaFX thread, so no extra
+ * thread is started and all game state stays on the FX thread. The timer only runs
+ * while a game is in progress.
+ */
+public final class GameClock {
+    private static final GameClock INSTANCE = new GameClock();
+
+    private final AnimationTimer pulse;   // Refreshes the label once per frame while running
+    private Label label;    // Label showing the elapsed seconds
+    private boolean running;
+    private long startNanos;    // Time the clock was last started
+    private long accumulatedNanos;  // Time counted before the clock was last started
+    private long shownSeconds;  // Seconds currently shown on the label
+
+    private GameClock() {
+        this.pulse = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                updateLabel();
+            }
+        };
+    }
+
+    /**
+     * Gets the application-wide clock.
+     *
+     * @return The game clock.
+     */
+    public static GameClock getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Stops the clock, sets it back to zero and makes it display on the given label.
+     * A label attached earlier, e.g. of a board that was thrown away, is no longer updated.
+     *
+     * @param label The label to display the elapsed seconds on.
+     */
+    public void reset(Label label) {
+        this.reset(label, 0);
+    }
+
+    /**
+     * Stops the clock, sets it to the given time and makes it display on the given label,
+     * e.g. when a saved game is resumed.
+     *
+     * @param label         The label to display the elapsed seconds on.
+     * @param elapsedMillis The time already played, in milliseconds.
+     */
+    public void reset(Label label, long elapsedMillis) {
+        this.stop();
+        this.label = label;
+        this.accumulatedNanos = elapsedMillis * 1_000_000;
+        this.shownSeconds = -1;
+        this.updateLabel();
+    }
+
+    /**
+     * Starts or resumes counting.
+     */
+    public void start() {
+        if (!this.running) {
+            this.running = true;
+            this.startNanos = System.nanoTime();
+            this.pulse.start();
+        }
+    }
+
+    /**
+     * Stops counting and keeps the elapsed time, e.g. when a game ends.
+     */
+    public void pause() {
+        if (this.running) {
+            this.accumulatedNanos += System.nanoTime() - this.startNanos;
+            this.running = false;
+            this.pulse.stop();
+            this.updateLabel();
+        }
+    }
+
+    /**
+     * Stops counting and detaches the label, e.g. when the application closes.
+     */
+    public void stop() {
+        this.pause();
+        this.label = null;
+    }
+
+    /**
+     * Gets the elapsed game time.
+     *
+     * @return The elapsed time in milliseconds.
+     */
+    public long getElapsedMillis() {
+        long nanos = this.accumulatedNanos;
+        if (this.running) {
+            nanos += System.nanoTime() - this.startNanos;
+        }
+        return nanos / 1_000_000;
+    }
+
+    /**
+     * Shows the elapsed seconds on the label when they changed.
+     */
+    private void updateLabel() {
+        long seconds = this.getElapsedMillis() / 1000;
+        if (this.label != null && seconds != this.shownSeconds) {
+            this.shownSeconds = seconds;
+            this.label.setText(String.format("%03d", seconds));
+        }
+    }
+}
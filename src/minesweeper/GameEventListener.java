@@ -0,0 +1,23 @@
+package minesweeper;
+
+/**
+ * Receives the events of a {@link GameEvents} ring, on the thread that polls its subscription.
+ */
+public interface GameEventListener {
+
+    /**
+     * Handles one event.
+     *
+     * @param event The packed event; see {@link GameEvents#type(long)} and {@link GameEvents#cell(long)}.
+     */
+    void onEvent(long event);
+
+    /**
+     * Called when the subscriber fell so far behind that events were overwritten before it read
+     * them. The subscriber should resynchronize from the model, e.g. by redrawing everything.
+     *
+     * @param lost The number of events skipped.
+     */
+    default void onOverrun(long lost) {
+    }
+}
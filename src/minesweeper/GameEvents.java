@@ -0,0 +1,152 @@
+package minesweeper;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A lock-free ring buffer of game events, written by the game thread and read by any number of
+ * subscribers on any threads.
+ * <p>
+ * An event is packed into one long: its type in the top byte, an argument in the next three
+ * bytes and a cell index in the low four, so publishing is one fenced array store and one
+ * ordered store of the cursor, with no allocation. Subscribers keep their own position and the producer
+ * never looks at them: a subscriber that falls more than the capacity behind is not waited for,
+ * it skips the overwritten events and is told through {@link GameEventListener#onOverrun(long)}.
+ * A slow renderer, recorder or bot therefore never slows down the game.
+ */
+public final class GameEvents {
+    public static final int CELL_REVEALED = 1;  // Cell; argument 1 if the reveal removed a flag
+    public static final int CELL_FLAGGED = 2;   // Cell; argument 1 if flagged, 0 if unflagged
+    public static final int CELL_HIDDEN = 3;    // Cell hidden again by an undo
+    public static final int GAME_WON = 4;
+    public static final int GAME_LOST = 5;
+    public static final int RESTARTED = 6;  // Every cell may have changed
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle CURSOR;
+
+    static {
+        try {
+            CURSOR = MethodHandles.lookup().findVarHandle(GameEvents.class, "published", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long[] slots;
+    private final int mask;
+    @SuppressWarnings("unused")
+    private volatile long published;    // Number of events published, accessed through CURSOR
+
+    /**
+     * Constructs an empty ring.
+     *
+     * @param capacity The number of events kept, a power of two.
+     */
+    public GameEvents(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.slots = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Packs an event.
+     *
+     * @param type     The event type.
+     * @param cell     The index of the cell, or 0 for game events.
+     * @param argument The argument of the event, below 2^24.
+     * @return The packed event.
+     */
+    public static long pack(int type, int cell, int argument) {
+        return ((long) type << 56) | ((long) argument << 32) | (cell & 0xFFFFFFFFL);
+    }
+
+    public static int type(long event) {
+        return (int) (event >>> 56);
+    }
+
+    public static int argument(long event) {
+        return (int) (event >>> 32) & 0xFFFFFF;
+    }
+
+    public static int cell(long event) {
+        return (int) event;
+    }
+
+    /**
+     * Publishes an event. Only one thread may publish.
+     *
+     * @param event The packed event.
+     */
+    public void publish(long event) {
+        long sequence = (long) CURSOR.getOpaque(this);
+        // The previous release store of the cursor must be visible before the slot is overwritten,
+        // or a subscriber a full ring behind could take the new event for the one it replaces
+        VarHandle.storeStoreFence();
+        SLOTS.setOpaque(this.slots, (int) sequence & this.mask, event);
+        CURSOR.setRelease(this, sequence + 1);
+    }
+
+    /**
+     * Starts a subscription that receives the events published from now on.
+     *
+     * @return The subscription, to be polled by one thread.
+     */
+    public Subscription subscribe() {
+        return new Subscription((long) CURSOR.getAcquire(this));
+    }
+
+    /**
+     * The read position of one subscriber.
+     */
+    public final class Subscription {
+        private long next;  // Sequence of the next event to read
+        private long lost;  // Events skipped so far
+
+        private Subscription(long next) {
+            this.next = next;
+        }
+
+        /**
+         * Hands every event published since the last poll to a listener.
+         *
+         * @param listener The listener, called on this thread.
+         * @return The number of events handled.
+         */
+        public int poll(GameEventListener listener) {
+            int handled = 0;
+            long end = (long) CURSOR.getAcquire(GameEvents.this);
+            long latest = end;  // The cursor as last seen; the producer may be writing the slot after it
+            while (this.next < end) {
+                if (latest - this.next >= slots.length) {
+                    long skipped = latest - slots.length + 1 - this.next;
+                    this.next += skipped;
+                    this.lost += skipped;
+                    listener.onOverrun(skipped);
+                    continue;
+                }
+                long event = (long) SLOTS.getOpaque(slots, (int) this.next & mask);
+                VarHandle.loadLoadFence();
+                latest = (long) CURSOR.getAcquire(GameEvents.this);
+                if (latest - this.next >= slots.length) {
+                    continue;   // Overwritten while being read
+                }
+                this.next++;
+                listener.onEvent(event);
+                handled++;
+            }
+            return handled;
+        }
+
+        /**
+         * Gets the number of events this subscriber missed by falling behind.
+         *
+         * @return The number of events skipped.
+         */
+        public long getLost() {
+            return this.lost;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A headless server hosting many concurrent {@link GameSession}s over TCP.
+ * <p>
+ * One NIO event loop runs per core, each with its own selector. Accepted connections are handed
+ * to the loops round-robin and stay on their loop for life, so a session's board, buffers and
+ * the loop's metrics are only ever touched by one thread and nothing is shared or locked.
+ * Java 17 has no virtual threads; non-blocking selectors keep thousands of idle sessions
+ * down to a handful of threads instead. A connection is not read from while it has responses
+ * the client has not taken yet, so a client that stops reading cannot grow the server's memory,
+ * and a connection whose session fails is closed on its own while the loop carries on. Every
+ * few seconds each loop prints its session count and the p50/p99 time spent handling a request.
+ * <p>
+ * Usage: {@code java minesweeper.GameServer [port] [loops]}; see {@link LoadClient} to drive it.
+ */
+public class GameServer {
+    public static final int DEFAULT_PORT = 7070;
+    private static final int MAX_LINE = 256;    // Longest request accepted
+    private static final long REPORT_NANOS = 5_000_000_000L;   // Interval between reports
+
+    private final ServerSocketChannel server;
+    private final EventLoop[] loops;
+
+    /**
+     * Binds the server and starts its event loops.
+     *
+     * @param port      The port to listen on.
+     * @param loopCount The number of event loops, normally the number of cores.
+     * @throws IOException if the port cannot be bound.
+     */
+    public GameServer(int port, int loopCount) throws IOException {
+        this.server = ServerSocketChannel.open();
+        this.server.bind(new InetSocketAddress(port), 1024);
+        this.loops = new EventLoop[loopCount];
+        for (int i = 0; i < loopCount; i++) {
+            this.loops[i] = new EventLoop(i);
+            Thread thread = new Thread(this.loops[i], "game-loop-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Accepts connections until the server socket is closed, spreading them over the loops.
+     *
+     * @throws IOException if accepting fails.
+     */
+    public void acceptLoop() throws IOException {
+        int next = 0;
+        while (this.server.isOpen()) {
+            SocketChannel channel = this.server.accept();
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            this.loops[next].adopt(channel);
+            next = (next + 1) % this.loops.length;
+        }
+    }
+
+    /**
+     * A selector thread serving the sessions of its connections.
+     */
+    private static final class EventLoop implements Runnable {
+        private final int id;
+        private final Selector selector;
+        private final Queue<SocketChannel> pending;     // Accepted, not yet registered
+        private final ByteBuffer readBuffer;    // Shared by this loop's connections for reads
+        private final LatencyHistogram latency;     // Time to handle a request, in nanoseconds
+        private int sessions;
+        private long requests;
+
+        EventLoop(int id) throws IOException {
+            this.id = id;
+            this.selector = Selector.open();
+            this.pending = new ConcurrentLinkedQueue<>();
+            this.readBuffer = ByteBuffer.allocateDirect(16 * 1024);
+            this.latency = new LatencyHistogram();
+        }
+
+        /**
+         * Hands a connection to this loop. Called from the accepting thread.
+         */
+        void adopt(SocketChannel channel) {
+            this.pending.add(channel);
+            this.selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            long nextReport = System.nanoTime() + REPORT_NANOS;
+            while (true) {
+                try {
+                    this.selector.select(1000);
+                    this.registerPending();
+                    Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        this.serve(key);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Event loop " + this.id + " failed: " + e);
+                }
+
+                if (System.nanoTime() - nextReport >= 0) {
+                    this.report();
+                    nextReport += REPORT_NANOS;
+                }
+            }
+        }
+
+        private void registerPending() throws IOException {
+            SocketChannel channel;
+            while ((channel = this.pending.poll()) != null) {
+                channel.register(this.selector, SelectionKey.OP_READ, new Connection(channel));
+                this.sessions++;
+            }
+        }
+
+        private void serve(SelectionKey key) {
+            Connection connection = (Connection) key.attachment();
+            try {
+                if (key.isReadable()) {
+                    this.readBuffer.clear();
+                    if (connection.channel.read(this.readBuffer) < 0) {
+                        this.close(key);
+                        return;
+                    }
+                    this.readBuffer.flip();
+                    connection.receive(this.readBuffer, this);
+                }
+                if (key.isValid() && key.isWritable()) {
+                    connection.flush();
+                }
+                if (key.isValid()) {
+                    if (connection.isDone()) {
+                        this.close(key);
+                    } else {
+                        // Read the next requests only once the responses so far are written
+                        key.interestOps(connection.hasOutput() ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+                    }
+                }
+            } catch (IOException e) {
+                this.close(key);
+            } catch (RuntimeException e) {
+                // A bug in one session must not take down the loop and every other session on it
+                System.err.println("Session failed, closing its connection: " + e);
+                this.close(key);
+            }
+        }
+
+        private void close(SelectionKey key) {
+            key.cancel();
+            try {
+                key.channel().close();
+            } catch (IOException e) {
+                System.err.println("Failed to close connection: " + e.getMessage());
+            }
+            this.sessions--;
+        }
+
+        private void report() {
+            if (this.requests == 0 && this.sessions == 0) {
+                return;
+            }
+            System.out.printf("loop %d: %,d sessions, %,d requests, p50 %.1f us, p99 %.1f us%n", this.id,
+                    this.sessions, this.requests, this.latency.getValueAtPercentile(50) / 1e3,
+                    this.latency.getValueAtPercentile(99) / 1e3);
+            this.requests = 0;
+            this.latency.reset();
+        }
+    }
+
+    /**
+     * The buffers and session of one client connection.
+     */
+    private static final class Connection {
+        private final SocketChannel channel;
+        private final GameSession session;
+        private final byte[] line;  // The request being received
+        private int lineLength;
+        private final StringBuilder response;   // Responses not yet encoded
+        private ByteBuffer output;  // Encoded responses not yet written
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+            this.session = new GameSession(System.nanoTime() ^ channel.hashCode());
+            this.line = new byte[MAX_LINE];
+            this.response = new StringBuilder();
+            this.output = ByteBuffer.allocate(0);
+        }
+
+        /**
+         * Splits received bytes into lines and handles each complete request.
+         */
+        void receive(ByteBuffer in, EventLoop loop) throws IOException {
+            while (in.hasRemaining()) {
+                byte b = in.get();
+                if (b == '\n') {
+                    long start = System.nanoTime();
+                    this.session.handle(new String(this.line, 0, this.lineLength, StandardCharsets.US_ASCII),
+                            this.response);
+                    loop.latency.record(System.nanoTime() - start);
+                    loop.requests++;
+                    this.lineLength = 0;
+                    if (this.session.isClosed()) {
+                        break;
+                    }
+                } else if (b != '\r') {
+                    if (this.lineLength == MAX_LINE) {
+                        throw new IOException("Request too long");
+                    }
+                    this.line[this.lineLength++] = b;
+                }
+            }
+            this.flush();
+        }
+
+        /**
+         * Writes as much pending output as the socket accepts.
+         */
+        void flush() throws IOException {
+            if (!this.output.hasRemaining() && this.response.length() > 0) {
+                this.output = StandardCharsets.US_ASCII.encode(CharBuffer.wrap(this.response));
+                this.response.setLength(0);
+            }
+            while (this.output.hasRemaining()) {
+                if (this.channel.write(this.output) == 0) {
+                    return;
+                }
+                if (!this.output.hasRemaining() && this.response.length() > 0) {
+                    this.output = StandardCharsets.US_ASCII.encode(CharBuffer.wrap(this.response));
+                    this.response.setLength(0);
+                }
+            }
+        }
+
+        boolean hasOutput() {
+            return this.output.hasRemaining() || this.response.length() > 0;
+        }
+
+        boolean isDone() {
+            return this.session.isClosed() && !this.hasOutput();
+        }
+    }
+
+    /**
+     * Starts the server.
+     *
+     * @param args Optional: the port and the number of event loops.
+     * @throws IOException if the server cannot start.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int loops = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        GameServer server = new GameServer(port, loops);
+        System.out.printf("Listening on port %d with %d event loops%n", port, loops);
+        server.acceptLoop();
+    }
+}
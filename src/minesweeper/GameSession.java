@@ -0,0 +1,163 @@
+package minesweeper;
+
+import java.util.SplittableRandom;
+
+/**
+ * The state and protocol of one remote game, as hosted by {@link GameServer}.
+ * A session is confined to the event loop that owns its connection, so it needs no locking.
+ * <p>
+ * Requests and responses are single ASCII lines. Cells are addressed by row and column, and the
+ * mines are placed on the first OPEN so that it is always safe:
+ * <pre>
+ * NEW width height mines [seed]  -> OK width height mines seed
+ * OPEN row col                   -> OPENED state count row,col,value ...
+ * CHORD row col                  -> OPENED state count row,col,value ...
+ * FLAG row col                   -> FLAGGED 0|1
+ * STATE                          -> STATE state safeRevealed flags
+ * QUIT                           -> BYE
+ * anything else                  -> ERR message
+ * </pre>
+ * A value is the cell's neighboring mine count, or * for a mine. States are those of
+ * {@link BoardModel}: 0 lost, 1 in progress, 2 won.
+ */
+public class GameSession {
+    public static final int MAX_CELLS = 1 << 22;    // Largest board a session may create
+
+    private final SplittableRandom random;  // Draws seeds for NEW without one
+    private BoardModel model;   // The current game, or null before the first NEW
+    private FloodFill floodFill;
+    private long seed;  // Seed of the current game
+    private boolean started;    // Whether mines were placed by the first OPEN
+    private boolean closed;     // Whether QUIT was received
+
+    /**
+     * Constructs a session with no game.
+     *
+     * @param seed The seed of the generator drawing game seeds.
+     */
+    public GameSession(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Handles one request line and appends the response line, with its newline.
+     *
+     * @param line     The request, without its newline.
+     * @param response The buffer to append the response to.
+     */
+    public void handle(String line, StringBuilder response) {
+        String[] args = line.trim().split("\\s+");
+        try {
+            switch (args[0].toUpperCase()) {
+                case "NEW" -> this.newGame(args, response);
+                case "OPEN" -> this.open(args, response, false);
+                case "CHORD" -> this.open(args, response, true);
+                case "FLAG" -> this.flag(args, response);
+                case "STATE" -> this.state(response);
+                case "QUIT" -> {
+                    this.closed = true;
+                    response.append("BYE");
+                }
+                default -> response.append("ERR unknown command ").append(args[0]);
+            }
+        } catch (IllegalArgumentException e) {
+            response.append("ERR ").append(e.getMessage());
+        }
+        response.append('\n');
+    }
+
+    private void newGame(String[] args, StringBuilder response) {
+        if (args.length < 4) {
+            throw new IllegalArgumentException("usage: NEW width height mines [seed]");
+        }
+        int width = Integer.parseInt(args[1]);
+        int height = Integer.parseInt(args[2]);
+        int mines = Integer.parseInt(args[3]);
+        if (width <= 0 || height <= 0 || (long) width * height > MAX_CELLS) {
+            throw new IllegalArgumentException("board must have between 1 and " + MAX_CELLS + " cells");
+        }
+        // The first click may land anywhere, so leave room for the largest safe zone of the board
+        int maxMines = MinePlacer.maxMines(width, height, Math.min(1, height - 1) * width + Math.min(1, width - 1));
+        if (mines < 0 || mines > maxMines) {
+            throw new IllegalArgumentException("too many mines for " + width + "x" + height);
+        }
+
+        this.seed = args.length > 4 ? Long.parseLong(args[4]) : this.random.nextLong();
+        this.model = new BoardModel(width, height, mines);
+        this.floodFill = new FloodFill(this.model);
+        this.started = false;
+        response.append("OK ").append(width).append(' ').append(height).append(' ').append(mines)
+                .append(' ').append(this.seed);
+    }
+
+    private void open(String[] args, StringBuilder response, boolean chord) {
+        int index = this.cell(args);
+        if (!this.started) {
+            this.model.placeMines(MinePlacer.place(this.model.getWidth(), this.model.getHeight(),
+                    this.model.getMines(), index, this.seed));
+            this.started = true;
+        }
+
+        IntList opened;
+        if (this.model.getState() != BoardModel.IN_PROGRESS) {
+            opened = new IntList();
+        } else {
+            opened = chord ? this.floodFill.chord(index) : this.floodFill.open(index);
+        }
+
+        int width = this.model.getWidth();
+        response.append("OPENED ").append(this.model.getState()).append(' ').append(opened.size());
+        for (int i = 0; i < opened.size(); i++) {
+            int cell = opened.get(i);
+            response.append(' ').append(cell / width).append(',').append(cell % width).append(',');
+            if (this.model.hasMine(cell)) {
+                response.append('*');
+            } else {
+                response.append(this.model.getNeighborMineCount(cell));
+            }
+        }
+    }
+
+    private void flag(String[] args, StringBuilder response) {
+        int index = this.cell(args);
+        if (this.model.getState() == BoardModel.IN_PROGRESS && !this.model.isRevealed(index)) {
+            this.model.setFlagged(index, !this.model.isFlagged(index));
+        }
+        response.append("FLAGGED ").append(this.model.isFlagged(index) ? 1 : 0);
+    }
+
+    private void state(StringBuilder response) {
+        if (this.model == null) {
+            throw new IllegalArgumentException("no game, send NEW first");
+        }
+        response.append("STATE ").append(this.model.getState()).append(' ').append(this.model.getSafeRevealed())
+                .append(' ').append(this.model.getFlagCount());
+    }
+
+    /**
+     * Parses the row and column arguments of a request.
+     */
+    private int cell(String[] args) {
+        if (this.model == null) {
+            throw new IllegalArgumentException("no game, send NEW first");
+        }
+        if (args.length < 3) {
+            throw new IllegalArgumentException("usage: " + args[0].toUpperCase() + " row col");
+        }
+        int row = Integer.parseInt(args[1]);
+        int col = Integer.parseInt(args[2]);
+        if (row < 0 || row >= this.model.getHeight() || col < 0 || col >= this.model.getWidth()) {
+            throw new IllegalArgumentException("cell out of the board");
+        }
+        return this.model.index(row, col);
+    }
+
+    /**
+     * Checks whether the client ended the session with QUIT.
+     *
+     * @return True if the connection should be closed once the response is sent.
+     */
+    public boolean isClosed() {
+        return this.closed;
+    }
+}
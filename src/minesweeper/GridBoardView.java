@@ -0,0 +1,71 @@
+package minesweeper;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.GridPane;
+
+/**
+ * Renders the board as a GridPane with one button per cell.
+ * Suited to the standard difficulties up to Hard; larger boards such as Huge use {@link CanvasBoardView}.
+ */
+public class GridBoardView implements BoardView {
+    private final Cell[] cells;   // Views of the cells, indexed like the model
+    private final GridPane grid;
+
+    /**
+     * Constructs the grid of cell buttons for the given board.
+     *
+     * @param board The Minesweeper game board.
+     */
+    public GridBoardView(Board board) {
+        BoardModel model = board.getModel();
+        Rectangle2D tile = board.getAtlas().getViewport(SpriteAtlas.TILE);
+
+        this.grid = new GridPane();
+        this.grid.setHgap(2);
+        this.grid.setVgap(2);
+        this.cells = new Cell[model.getCells()];
+
+        for (int row = 0; row < model.getHeight(); row++) {
+            for (int col = 0; col < model.getWidth(); col++) {
+                Cell cell = new Cell(board, row, col);
+                this.cells[model.index(row, col)] = cell;
+
+                // Set cell button size and graphics
+                cell.getBtn().setMaxSize(tile.getWidth(), tile.getHeight());
+                cell.getBtn().setMinSize(tile.getWidth(), tile.getHeight());
+                cell.refresh();
+
+                // Handle mouse clicks on cell buttons
+                cell.getBtn().setOnMouseClicked(e -> {
+                    if (BoardView.isChord(e)) {
+                        cell.chord();
+                    } else if (e.getButton() == MouseButton.PRIMARY) {
+                        cell.revealCell();
+                    } else if (e.getButton() == MouseButton.SECONDARY) {
+                        cell.flag();
+                    }
+                });
+                this.grid.add(cell.getBtn(), row, col);
+            }
+        }
+    }
+
+    @Override
+    public Node getNode() {
+        return this.grid;
+    }
+
+    @Override
+    public void refreshCell(int index) {
+        this.cells[index].refresh();
+    }
+
+    @Override
+    public void refreshAll() {
+        for (Cell cell : this.cells) {
+            cell.refresh();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package minesweeper;
+
+/**
+ * Live hints showing which hidden cells are provably safe and which are mines.
+ * <p>
+ * The overlay subscribes to the board's {@link GameEvents} and keeps one {@link Solver} for the
+ * whole game. After each action it hands the solver only the cells the action revealed, so just
+ * the numbers next to them are re-examined; deductions only ever gain support as cells are
+ * revealed, so they are kept. The work per action is therefore proportional to what the action
+ * changed, not to the size of the board. Flags are ignored, since the solver never trusts the
+ * player's flags. Hiding cells again with an undo takes away numbers earlier deductions may rest
+ * on, so it makes the solver rescan the board, as do a restart and a cascade too large for the
+ * event ring. A rescan reports every cell hinted before it as changed, so hints the board can no
+ * longer prove are cleared from the screen.
+ */
+public class HintOverlay implements GameEventListener {
+    private final BoardModel model;
+    private final Solver solver;
+    private final GameEvents.Subscription events;
+    private final IntList changed;  // Cells whose hint changed in the last update
+    private boolean rescan;     // Whether the solver must start over from the whole board
+
+    /**
+     * Starts hinting a board from its current state.
+     *
+     * @param model  The board.
+     * @param events The events the board's model publishes.
+     */
+    public HintOverlay(BoardModel model, GameEvents events) {
+        this.model = model;
+        this.solver = new Solver(model);
+        this.events = events.subscribe();
+        this.changed = new IntList();
+        this.rescan = true;
+    }
+
+    /**
+     * Applies the events since the last update and deduces what they made provable.
+     *
+     * @return The hidden cells whose hint changed, to redraw. The list is reused by the next call.
+     */
+    public IntList update() {
+        this.changed.clear();
+        this.events.poll(this);
+        this.solver.clearDeductions();
+        if (this.rescan) {
+            this.rescan = false;
+            // The deductions are about to be forgotten; their cells must be redrawn without them
+            for (int i = 0; i < this.model.getCells(); i++) {
+                if (!this.model.isRevealed(i) && (this.solver.isKnownSafe(i) || this.solver.isKnownMine(i))) {
+                    this.changed.add(i);
+                }
+            }
+            this.solver.reset();
+        }
+        this.solver.solve();
+
+        this.addHidden(this.solver.getSafeCells());
+        this.addHidden(this.solver.getMineCells());
+        return this.changed;
+    }
+
+    /**
+     * Re-queues the numbers around a revealed cell, or starts over after an undo or a restart.
+     *
+     * @param event The event published by the model.
+     */
+    @Override
+    public void onEvent(long event) {
+        switch (GameEvents.type(event)) {
+            case GameEvents.CELL_REVEALED -> this.solver.cellRevealed(GameEvents.cell(event));
+            case GameEvents.CELL_HIDDEN, GameEvents.RESTARTED -> this.rescan = true;
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void onOverrun(long lost) {
+        this.rescan = true;
+    }
+
+    /**
+     * Checks whether a hidden cell is proven safe.
+     *
+     * @param index The index of the cell.
+     * @return True if the cell is hinted as safe.
+     */
+    public boolean isSafe(int index) {
+        return !this.rescan && this.solver.isKnownSafe(index);
+    }
+
+    /**
+     * Checks whether a hidden cell is proven to be a mine.
+     *
+     * @param index The index of the cell.
+     * @return True if the cell is hinted as a mine.
+     */
+    public boolean isMine(int index) {
+        return !this.rescan && this.solver.isKnownMine(index);
+    }
+
+    private void addHidden(IntList cells) {
+        for (int i = 0; i < cells.size(); i++) {
+            if (!this.model.isRevealed(cells.get(i))) {
+                this.changed.add(cells.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package minesweeper;
+
+import javafx.scene.image.Image;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The application-wide image cache.
+ * {@link #preload()} starts decoding every game image with JavaFX background loading as soon as
+ * the application starts, so by the time a board is created the images are ready. All boards and
+ * restarts share the same images and the same {@link SpriteAtlas}, which is packed once.
+ * Like the rest of the UI, the cache is used from the JavaFX thread only.
+ */
+public final class ImageCache {
+    private static final ImageCache INSTANCE = new ImageCache();
+
+    // Image keys and their files in the images folder
+    private static final String[][] FILES = {
+            {"safeTile", "safe.png"}, {"bomb", "bomb.png"}, {"flag", "flag.png"}, {"tile", "tile.png"},
+            {"yellow", "yellow.png"}, {"green", "green.png"}, {"red", "red.png"}, {"timer", "timer.png"},
+            {"0", "0.png"}, {"1", "1.png"}, {"2", "2.png"}, {"3", "3.png"}, {"4", "4.png"},
+            {"5", "5.png"}, {"6", "6.png"}, {"7", "7.png"}, {"8", "8.png"},
+            {"icon", "icon.png"}, {"settings", "settings.png"}
+    };
+
+    private final Map<String, Image> images;    // Images by key, loading or loaded
+    private SpriteAtlas atlas;  // Packed on first use
+
+    private ImageCache() {
+        this.images = new HashMap<>();
+    }
+
+    /**
+     * Gets the application-wide image cache.
+     *
+     * @return The image cache.
+     */
+    public static ImageCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts decoding every image in the background. Calling it again does nothing.
+     */
+    public void preload() {
+        for (String[] file : FILES) {
+            this.images.computeIfAbsent(file[0], key -> {
+                URL url = ImageCache.class.getResource("images/" + file[1]);
+                if (url == null) {
+                    System.err.println("Failed to load image resource: " + file[1]);
+                    return null;
+                }
+                return new Image(url.toExternalForm(), true);
+            });
+        }
+    }
+
+    /**
+     * Gets an image, decoding it now if it was not preloaded or its background load has not
+     * finished or failed.
+     *
+     * @param key The key of the image, e.g. "tile" or "icon".
+     * @return The fully loaded image.
+     */
+    public Image getImage(String key) {
+        Image image = this.images.get(key);
+        if (image == null || image.getProgress() < 1 || image.isError()) {
+            image = this.loadNow(key);
+            this.images.put(key, image);
+        }
+        return image;
+    }
+
+    /**
+     * Gets every game image, fully loaded.
+     *
+     * @return A read-only map of the images by key.
+     */
+    public Map<String, Image> getImages() {
+        for (String[] file : FILES) {
+            this.getImage(file[0]);
+        }
+        return Collections.unmodifiableMap(this.images);
+    }
+
+    /**
+     * Gets the atlas shared by all boards, packing it the first time.
+     *
+     * @return The sprite atlas.
+     */
+    public SpriteAtlas getAtlas() {
+        if (this.atlas == null) {
+            this.atlas = new SpriteAtlas(this.getImages());
+        }
+        return this.atlas;
+    }
+
+    @SuppressWarnings("ConstantConditions")
+    private Image loadNow(String key) {
+        for (String[] file : FILES) {
+            if (file[0].equals(key)) {
+                return new Image(ImageCache.class.getResourceAsStream("images/" + file[1]));
+            }
+        }
+        throw new IllegalArgumentException("Unknown image: " + key);
+    }
+}
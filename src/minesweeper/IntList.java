@@ -0,0 +1,86 @@
+package minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive ints, used as a work queue and as a result buffer
+ * so hot paths do not box cell indices.
+ */
+public class IntList {
+    private int[] values;
+    private int size;
+
+    /**
+     * Constructs an empty list with a small initial capacity.
+     */
+    public IntList() {
+        this(16);
+    }
+
+    /**
+     * Constructs an empty list with the given initial capacity.
+     *
+     * @param capacity The initial capacity.
+     */
+    public IntList(int capacity) {
+        this.values = new int[Math.max(1, capacity)];
+    }
+
+    /**
+     * Appends a value to the end of the list.
+     *
+     * @param value The value to append.
+     */
+    public void add(int value) {
+        if (this.size == this.values.length) {
+            this.values = Arrays.copyOf(this.values, this.size << 1);
+        }
+        this.values[this.size++] = value;
+    }
+
+    /**
+     * Removes and returns the last value of the list.
+     *
+     * @return The last value.
+     */
+    public int removeLast() {
+        return this.values[--this.size];
+    }
+
+    public int get(int i) {
+        return this.values[i];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Removes the values from the given position on, keeping the allocated capacity.
+     *
+     * @param size The number of values to keep.
+     */
+    public void truncate(int size) {
+        this.size = Math.min(this.size, Math.max(0, size));
+    }
+
+    /**
+     * Removes all values, keeping the allocated capacity.
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Copies the values into a new array.
+     *
+     * @return An array holding the values of the list.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(this.values, this.size);
+    }
+}
@@ -0,0 +1,110 @@
+package minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size log-linear histogram of non-negative values, e.g. latencies in nanoseconds.
+ * As in HdrHistogram, values are grouped by their highest set bit and each power-of-two range is
+ * split into {@value #SUB_BUCKETS} linear sub-buckets, so every recorded value is kept to about
+ * 3% precision. Recording is a few shifts and an array increment: it never allocates.
+ * Not thread-safe; each histogram is written by one thread.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int RANGES = 64 - SUB_BUCKET_BITS + 1;     // Enough for any long
+
+    private final long[] counts;
+    private long totalCount;
+    private long max;
+    private long sum;
+
+    public LatencyHistogram() {
+        this.counts = new long[RANGES * SUB_BUCKETS];
+    }
+
+    /**
+     * Records a value. Negative values are recorded as zero.
+     *
+     * @param value The value to record.
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        this.counts[bucket(value)]++;
+        this.totalCount++;
+        this.sum += value;
+        this.max = Math.max(this.max, value);
+    }
+
+    /**
+     * Finds the bucket of a value. Values below {@value #SUB_BUCKETS} have a bucket each; above,
+     * range r holds the values whose highest bit is bit r + 4, split by the next five bits.
+     */
+    private static int bucket(long value) {
+        int range = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        if (range == 0) {
+            return (int) value;
+        }
+        return (range << SUB_BUCKET_BITS) + (int) (value >>> (range - 1)) - SUB_BUCKETS;
+    }
+
+    /**
+     * Gets the highest value a bucket holds.
+     */
+    private static long bucketMax(int bucket) {
+        int range = bucket >>> SUB_BUCKET_BITS;
+        long sub = bucket & (SUB_BUCKETS - 1);
+        if (range == 0) {
+            return sub;
+        }
+        return ((sub + SUB_BUCKETS + 1) << (range - 1)) - 1;
+    }
+
+    /**
+     * Gets the value at a percentile, to the precision of the buckets.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The highest value of the bucket holding the percentile, or 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (this.totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * this.totalCount));
+        long seen = 0;
+        for (int i = 0; i < this.counts.length; i++) {
+            seen += this.counts[i];
+            if (seen >= rank) {
+                return Math.min(bucketMax(i), this.max);
+            }
+        }
+        return this.max;
+    }
+
+    public long getTotalCount() {
+        return this.totalCount;
+    }
+
+    public long getMax() {
+        return this.max;
+    }
+
+    /**
+     * Gets the mean of the recorded values.
+     *
+     * @return The mean, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        return this.totalCount == 0 ? 0 : (double) this.sum / this.totalCount;
+    }
+
+    /**
+     * Forgets every recorded value.
+     */
+    public void reset() {
+        Arrays.fill(this.counts, 0L);
+        this.totalCount = 0;
+        this.max = 0;
+        this.sum = 0;
+    }
+}
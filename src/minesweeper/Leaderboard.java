@@ -0,0 +1,74 @@
+package minesweeper;
+
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.layout.GridPane;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+/**
+ * A window listing the statistics of every difficulty from the {@link StatsStore}: games, wins,
+ * streaks, best times and time percentiles. Every figure is a constant number of index lookups,
+ * so the window opens instantly however many games were played.
+ */
+public class Leaderboard {
+    private static final int TOP = 5;   // Best times listed per difficulty
+    private static final String[] HEADERS = {"", "Games", "Won", "Streak", "Best " + TOP, "Median", "90%"};
+
+    private Leaderboard() {
+    }
+
+    /**
+     * Opens the leaderboard in a new window.
+     *
+     * @param owner The window it belongs to.
+     */
+    public static void show(Window owner) {
+        GridPane grid = new GridPane();
+        grid.setHgap(15);
+        grid.setVgap(8);
+        grid.setPadding(new Insets(15));
+        for (int c = 0; c < HEADERS.length; c++) {
+            Label header = new Label(HEADERS[c]);
+            header.setStyle("-fx-font-weight: bold;");
+            grid.add(header, c, 0);
+        }
+
+        StatsStore stats = StatsStore.getInstance();
+        for (int d = 0; d < StatsStore.NAMES.length; d++) {
+            grid.add(new Label(StatsStore.NAMES[d]), 0, d + 1);
+            if (stats == null) {
+                continue;
+            }
+            long games = stats.getGames(d);
+            long wins = stats.getWins(d);
+            grid.add(new Label(String.valueOf(games)), 1, d + 1);
+            grid.add(new Label(games == 0 ? "-" : wins + String.format(" (%.0f%%)", 100.0 * wins / games)), 2, d + 1);
+            grid.add(new Label(stats.getCurrentStreak(d) + " / " + stats.getBestStreak(d)), 3, d + 1);
+
+            StringBuilder top = new StringBuilder();
+            for (int k = 0; k < TOP && k < wins; k++) {
+                top.append(k > 0 ? ", " : "").append(formatTime(stats.getTime(d, k)));
+            }
+            grid.add(new Label(top.length() == 0 ? "-" : top.toString()), 4, d + 1);
+            grid.add(new Label(formatTime(stats.getPercentile(d, 50))), 5, d + 1);
+            grid.add(new Label(formatTime(stats.getPercentile(d, 90))), 6, d + 1);
+        }
+
+        Stage window = new Stage();
+        window.initOwner(owner);
+        window.setTitle("Leaderboard");
+        window.setScene(new Scene(grid));
+        window.setResizable(false);
+        window.getIcons().add(ImageCache.getInstance().getImage("settings"));
+        window.show();
+    }
+
+    /**
+     * Formats a time as seconds with one decimal, or a dash when there is no time.
+     */
+    private static String formatTime(long millis) {
+        return millis < 0 ? "-" : String.format("%.1fs", millis / 1000.0);
+    }
+}
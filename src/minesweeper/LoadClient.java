@@ -0,0 +1,153 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+
+/**
+ * A load generator for {@link GameServer}. It opens many connections from one NIO selector
+ * thread, and every connection plays games back to back by opening random cells, with one
+ * request in flight at a time. At the end it reports games, requests per second and the
+ * round-trip latency percentiles.
+ * <p>
+ * Usage: {@code java minesweeper.LoadClient [host] [port] [connections] [seconds] [width height mines]}
+ */
+public class LoadClient {
+    private final SplittableRandom random = new SplittableRandom(1);
+    private final LatencyHistogram latency = new LatencyHistogram();    // Round trips in nanoseconds
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(64 * 1024);
+    private final int width;
+    private final int height;
+    private final int mines;
+    private long games;
+    private long wins;
+
+    private LoadClient(int width, int height, int mines) {
+        this.width = width;
+        this.height = height;
+        this.mines = mines;
+    }
+
+    /**
+     * Opens the connections and plays until the time is up.
+     */
+    private void run(InetSocketAddress address, int connections, int seconds) throws IOException {
+        Selector selector = Selector.open();
+        for (int i = 0; i < connections; i++) {
+            SocketChannel channel = SocketChannel.open(address);
+            channel.socket().setTcpNoDelay(true);
+            channel.configureBlocking(false);
+            Player player = new Player(channel);
+            channel.register(selector, SelectionKey.OP_READ, player);
+            player.send("NEW " + this.width + " " + this.height + " " + this.mines);
+        }
+
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        while (System.nanoTime() < end) {
+            selector.select(100);
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                Player player = (Player) key.attachment();
+                this.readBuffer.clear();
+                if (player.channel.read(this.readBuffer) < 0) {
+                    throw new IOException("Server closed a connection");
+                }
+                this.readBuffer.flip();
+                player.receive(this.readBuffer);
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+
+        System.out.printf("%,d connections, %,d games (%.1f%% won), %,.0f requests/s, "
+                        + "round trip p50 %.1f us, p99 %.1f us, max %.1f us%n",
+                connections, this.games, 100.0 * this.wins / Math.max(1, this.games),
+                this.latency.getTotalCount() / elapsed, this.latency.getValueAtPercentile(50) / 1e3,
+                this.latency.getValueAtPercentile(99) / 1e3, this.latency.getMax() / 1e3);
+    }
+
+    /**
+     * One connection playing random games.
+     */
+    private final class Player {
+        private final SocketChannel channel;
+        private final StringBuilder line = new StringBuilder();     // The response being received
+        private long sentNanos;     // When the request in flight was sent
+
+        Player(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void send(String request) throws IOException {
+            ByteBuffer out = StandardCharsets.US_ASCII.encode(request + "\n");
+            this.sentNanos = System.nanoTime();
+            while (out.hasRemaining()) {
+                this.channel.write(out);
+            }
+        }
+
+        void receive(ByteBuffer in) throws IOException {
+            while (in.hasRemaining()) {
+                char c = (char) in.get();
+                if (c == '\n') {
+                    latency.record(System.nanoTime() - this.sentNanos);
+                    this.respond(this.line.toString());
+                    this.line.setLength(0);
+                } else {
+                    this.line.append(c);
+                }
+            }
+        }
+
+        /**
+         * Sends the next request of the game given the server's response.
+         */
+        private void respond(String response) throws IOException {
+            if (response.startsWith("OPENED")) {
+                int state = response.charAt(7) - '0';
+                if (state != BoardModel.IN_PROGRESS) {
+                    games++;
+                    if (state == BoardModel.WON) {
+                        wins++;
+                    }
+                    this.send("NEW " + width + " " + height + " " + mines);
+                    return;
+                }
+            } else if (!response.startsWith("OK")) {
+                throw new IOException("Unexpected response: " + response);
+            }
+            this.send("OPEN " + random.nextInt(height) + " " + random.nextInt(width));
+        }
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param args Optional: host, port, connections, seconds, and board width, height and mines.
+     * @throws IOException if a connection fails.
+     */
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : GameServer.DEFAULT_PORT;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int width = args.length > 6 ? Integer.parseInt(args[4]) : 16;
+        int height = args.length > 6 ? Integer.parseInt(args[5]) : 16;
+        int mines = args.length > 6 ? Integer.parseInt(args[6]) : 40;
+
+        new LoadClient(width, height, mines).run(new InetSocketAddress(host, port), connections, seconds);
+    }
+}
@@ -5,19 +5,24 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.RadioButton;
 import javafx.scene.control.ToggleGroup;
-import javafx.scene.image.Image;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+
 /**
  * The Main class represents the entry point of the Minesweeper game application.
  * It provides a graphical user interface for selecting the difficulty level
  * and starting the game.
  */
 public class Main extends Application {
+    private Closeable currentGame;    // The board being played, if any
 
     /**
      * Starts the Minesweeper game application.
@@ -26,6 +31,9 @@ public class Main extends Application {
      */
     @Override
     public void start(Stage window) {
+        // Start decoding the game images in the background while the player picks a difficulty
+        ImageCache.getInstance().preload();
+
         // Create main layout
         BorderPane layout = new BorderPane();
 
@@ -34,7 +42,9 @@ public class Main extends Application {
         RadioButton[] difficultyButtons = new RadioButton[]{
                 new RadioButton("Easy"),
                 new RadioButton("Medium"),
-                new RadioButton("Hard")
+                new RadioButton("Hard"),
+                new RadioButton("Huge"),
+                new RadioButton("Endless")
         };
 
         // Configure radio buttons
@@ -46,6 +56,19 @@ public class Main extends Application {
         // Set the default selected difficulty button
         difficultyButtons[0].setSelected(true);
 
+        // Create a check box for boards that can be solved without guessing
+        CheckBox noGuessBox = new CheckBox("No guessing");
+        noGuessBox.setStyle("-fx-font-size: 12px;");
+        // Start generating no-guess boards once the option is ticked, so the first game needs no wait
+        noGuessBox.setOnAction(e -> {
+            if (noGuessBox.isSelected()) {
+                for (String difficulty : new String[]{Difficulty.EASY, Difficulty.MEDIUM, Difficulty.HARD}) {
+                    int[] sizeAndMines = Difficulty.getSizeAndMines(difficulty);
+                    BoardPool.getInstance().prefill(sizeAndMines[0], sizeAndMines[1]);
+                }
+            }
+        });
+
         // Create and handle start button
         Button startButton = new Button("Start");
         startButton.setOnAction(e -> {
@@ -56,6 +79,23 @@ public class Main extends Application {
                 selectedDifficulty = Difficulty.MEDIUM;
             } else if (difficultyButtons[2].isSelected()) {
                 selectedDifficulty = Difficulty.HARD;
+            } else if (difficultyButtons[3].isSelected()) {
+                selectedDifficulty = Difficulty.HUGE;
+            } else if (difficultyButtons[4].isSelected()) {
+                selectedDifficulty = Difficulty.ENDLESS;
+            }
+
+            // The endless board has no fixed size; its chunks are generated as they are explored
+            if (selectedDifficulty.equals(Difficulty.ENDLESS)) {
+                EndlessBoard endless;
+                try {
+                    endless = new EndlessBoard();
+                } catch (IOException ex) {
+                    System.err.println("Failed to create the endless world: " + ex.getMessage());
+                    return;
+                }
+                this.showBoard(window, endless, endless.create_board());
+                return;
             }
 
             // Get the size and number of mines based on the selected difficulty
@@ -64,37 +104,111 @@ public class Main extends Application {
             int mines = sizeAndMines[1];
 
             // Create a new Minesweeper board
-            Board minesweeper = new Board(size, mines);
+            Board minesweeper = new Board(size, mines, noGuessBox.isSelected());
             BorderPane board = minesweeper.create_board();
             minesweeper.generateMines();
+            this.showBoard(window, minesweeper, board);
+        });
 
-            // Create a scene and set it to the window
-            Scene scene = new Scene(board);
-            window.setScene(scene);
-            window.setTitle("Minesweeper");
-            window.getIcons().clear();
-            window.getIcons().add(new Image(getClass().getResourceAsStream("images/icon.png")));
+        // Create and handle resume button, offered when a game was saved on the last exit
+        Button resumeButton = new Button("Resume");
+        resumeButton.setDisable(!Files.exists(Board.SAVE_FILE));
+        resumeButton.setOnAction(e -> {
+            SavedGame saved;
+            try {
+                saved = SavedGame.load(Board.SAVE_FILE);
+            } catch (IOException ex) {
+                System.err.println("Failed to load the saved game: " + ex.getMessage());
+                resumeButton.setDisable(true);
+                return;
+            }
+
+            // Boards are square; any other snapshot was not written by this game
+            if (saved.getWidth() != saved.getHeight()) {
+                System.err.println("Failed to load the saved game: " + saved.getWidth() + "x" + saved.getHeight()
+                        + " is not a square board");
+                resumeButton.setDisable(true);
+                return;
+            }
+
+            // Rebuild the board straight from the snapshot, in its mode, without generating mines
+            Board minesweeper = new Board(saved.getWidth(), saved.getMines(), saved.isNoGuess());
+            BorderPane board = minesweeper.create_board();
+            minesweeper.resume(saved);
+            this.showBoard(window, minesweeper, board);
         });
 
+        // Create and handle stats button, showing the results of every finished game
+        Button statsButton = new Button("Stats");
+        statsButton.setOnAction(e -> Leaderboard.show(window));
+
         // Create a horizontal box for radio buttons
         HBox radioButtons = new HBox(10);
         radioButtons.setAlignment(Pos.CENTER);
         radioButtons.getChildren().addAll(difficultyButtons);
         BorderPane.setMargin(radioButtons, new Insets(25, 0, 0, 0));
 
+        // Create a horizontal box for the start, resume and stats buttons and the no-guess option
+        HBox startBox = new HBox(10);
+        startBox.setAlignment(Pos.CENTER);
+        startBox.getChildren().addAll(startButton, resumeButton, statsButton, noGuessBox);
+
         // Set the layout
         layout.setTop(radioButtons);
-        layout.setCenter(startButton);
+        layout.setCenter(startBox);
 
         // Create a scene and set it to the window
-        Scene scene = new Scene(layout, 250, 100);
+        Scene scene = new Scene(layout, 440, 100);
         window.setTitle("Difficulty");
         window.setScene(scene);
         window.setResizable(false);
-        window.getIcons().add(new Image(getClass().getResourceAsStream("images/settings.png")));
+        window.getIcons().add(ImageCache.getInstance().getImage("settings"));
         window.show();
     }
 
+    /**
+     * Replaces the current board, if any, and shows the new one in the window.
+     *
+     * @param window      The primary stage.
+     * @param minesweeper The new board.
+     * @param board       The layout of the new board.
+     */
+    private void showBoard(Stage window, Closeable minesweeper, BorderPane board) {
+        this.closeGame();
+        this.currentGame = minesweeper;
+
+        // Create a scene and set it to the window
+        Scene scene = new Scene(board);
+        window.setScene(scene);
+        window.setTitle("Minesweeper");
+        window.getIcons().clear();
+        window.getIcons().add(ImageCache.getInstance().getImage("icon"));
+    }
+
+    /**
+     * Saves the current game, stops the game clock and closes the replay of the current game
+     * when the application closes, then prints the metrics if they were asked for.
+     */
+    @Override
+    public void stop() {
+        GameClock.getInstance().stop();
+        if (this.currentGame instanceof Board minesweeper) {
+            minesweeper.save();
+        }
+        this.closeGame();
+        Metrics.getInstance().dumpIfEnabled();
+    }
+
+    private void closeGame() {
+        if (this.currentGame == null) {
+            return;
+        }
+        try {
+            this.currentGame.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close the game: " + e.getMessage());
+        }
+    }
 
     public static void main(String[] args) {
         launch(Main.class);
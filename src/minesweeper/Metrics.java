@@ -0,0 +1,191 @@
+package minesweeper;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * The application-wide latency and throughput metrics of the game's hot paths.
+ * Every probe keeps a {@link LatencyHistogram} of its latency in nanoseconds, and actions also
+ * count the cells they changed. Each measurement is emitted as a Java Flight Recorder event too,
+ * so a recording started with {@code -XX:StartFlightRecording} shows where a slow frame went.
+ * Like the rest of the UI, metrics are recorded from the JavaFX thread only.
+ * <p>
+ * Run with {@code -Dminesweeper.metrics=true} to print a p50/p99 summary on exit.
+ */
+public final class Metrics {
+    public static final int REVEAL = 0;
+    public static final int CHORD = 1;
+    public static final int FLAG = 2;
+    public static final int RENDER = 3;     // Applying an action's changes to the view
+    public static final int GENERATE = 4;
+    public static final int RESTART = 5;
+    public static final int GAME_END = 6;   // Evaluating and showing the end of a game
+
+    private static final String[] NAMES = {
+            "reveal", "chord", "flag", "render", "generate", "restart", "game end"
+    };
+    private static final Metrics INSTANCE = new Metrics();
+
+    private final LatencyHistogram[] latencies;     // Latency of each probe
+    private final LatencyHistogram cellsPerAction;  // Cells changed by each reveal, chord or flag
+    private long cellsRevealed;     // Cells revealed over all games
+
+    private Metrics() {
+        this.latencies = new LatencyHistogram[NAMES.length];
+        for (int i = 0; i < NAMES.length; i++) {
+            this.latencies[i] = new LatencyHistogram();
+        }
+        this.cellsPerAction = new LatencyHistogram();
+    }
+
+    /**
+     * Gets the application-wide metrics.
+     *
+     * @return The metrics.
+     */
+    public static Metrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records the latency of a probe that is not a player action.
+     *
+     * @param probe      The probe, e.g. {@link #GENERATE}.
+     * @param startNanos The System.nanoTime() when the measured work began.
+     */
+    public void record(int probe, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        this.latencies[probe].record(nanos);
+
+        TimingEvent event = new TimingEvent();
+        if (event.shouldCommit()) {
+            event.probe = NAMES[probe];
+            event.latency = nanos;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records a player action: its latency and the cells it changed.
+     *
+     * @param probe      {@link #REVEAL}, {@link #CHORD} or {@link #FLAG}.
+     * @param startNanos The System.nanoTime() when the action began.
+     * @param cell       The index of the cell acted on.
+     * @param cells      The number of cells the action opened or changed.
+     */
+    public void recordAction(int probe, long startNanos, int cell, int cells) {
+        long nanos = System.nanoTime() - startNanos;
+        this.latencies[probe].record(nanos);
+        this.cellsPerAction.record(cells);
+        if (probe != FLAG) {
+            this.cellsRevealed += cells;
+        }
+
+        ActionEvent event = new ActionEvent();
+        if (event.shouldCommit()) {
+            event.action = NAMES[probe];
+            event.cell = cell;
+            event.cells = cells;
+            event.latency = nanos;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records the end of a game.
+     *
+     * @param won           True if the game was won.
+     * @param elapsedMillis The game time in milliseconds.
+     * @param seed          The seed of the mine layout.
+     */
+    public void recordGameEnd(boolean won, long elapsedMillis, long seed) {
+        GameEndEvent event = new GameEndEvent();
+        if (event.shouldCommit()) {
+            event.won = won;
+            event.elapsed = elapsedMillis * 1_000_000;
+            event.seed = seed;
+            event.commit();
+        }
+    }
+
+    /**
+     * Formats the percentiles of every probe that recorded something.
+     *
+     * @return A multi-line report.
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder(String.format("%-10s %8s %10s %10s %10s%n",
+                "probe", "count", "p50 us", "p99 us", "max us"));
+        for (int i = 0; i < NAMES.length; i++) {
+            LatencyHistogram h = this.latencies[i];
+            if (h.getTotalCount() > 0) {
+                report.append(String.format("%-10s %,8d %10.1f %10.1f %10.1f%n", NAMES[i], h.getTotalCount(),
+                        h.getValueAtPercentile(50) / 1e3, h.getValueAtPercentile(99) / 1e3, h.getMax() / 1e3));
+            }
+        }
+        report.append(String.format("cells per action: p50 %d, p99 %d, max %d; %,d cells revealed",
+                this.cellsPerAction.getValueAtPercentile(50), this.cellsPerAction.getValueAtPercentile(99),
+                this.cellsPerAction.getMax(), this.cellsRevealed));
+        return report.toString();
+    }
+
+    /**
+     * Prints the report if the {@code minesweeper.metrics} system property is true.
+     */
+    public void dumpIfEnabled() {
+        if (Boolean.getBoolean("minesweeper.metrics")) {
+            System.out.println(this.report());
+        }
+    }
+
+    @Name("minesweeper.Action")
+    @Label("Player Action")
+    @Category("Minesweeper")
+    @Description("A reveal, chord or flag and the cells it changed")
+    static final class ActionEvent extends Event {
+        @Label("Action")
+        String action;
+
+        @Label("Cell")
+        int cell;
+
+        @Label("Cells Changed")
+        int cells;
+
+        @Label("Latency")
+        @Timespan
+        long latency;
+    }
+
+    @Name("minesweeper.Timing")
+    @Label("Timing")
+    @Category("Minesweeper")
+    @Description("Board generation, restart, rendering or end-of-game evaluation")
+    static final class TimingEvent extends Event {
+        @Label("Probe")
+        String probe;
+
+        @Label("Latency")
+        @Timespan
+        long latency;
+    }
+
+    @Name("minesweeper.GameEnd")
+    @Label("Game End")
+    @Category("Minesweeper")
+    static final class GameEndEvent extends Event {
+        @Label("Won")
+        boolean won;
+
+        @Label("Game Time")
+        @Timespan
+        long elapsed;
+
+        @Label("Seed")
+        long seed;
+    }
+}
@@ -0,0 +1,117 @@
+package minesweeper;
+
+import java.util.SplittableRandom;
+
+/**
+ * Places mines uniformly at random, without replacement, on every cell outside the 3x3
+ * area around the safe tile.
+ * Sampling uses Floyd's algorithm over the allowed cells, so it draws exactly one random
+ * number per mine at any density the safe zone allows. The cells taken so far are tracked in
+ * a bitset over all allowed cells, so a call runs in O(mines + cells / 64) time. The same
+ * seed always produces the same layout.
+ */
+public final class MinePlacer {
+
+    private MinePlacer() {
+    }
+
+    /**
+     * Chooses the cells that receive a mine.
+     *
+     * @param width     The number of columns.
+     * @param height    The number of rows.
+     * @param mines     The number of mines to place.
+     * @param safeIndex The index of the safe tile; it and its neighbors stay clear.
+     * @param seed      The seed of the random generator.
+     * @return The indices of the mined cells.
+     * @throws IllegalArgumentException if the mines do not fit outside the safe zone.
+     */
+    public static int[] place(int width, int height, int mines, int safeIndex, long seed) {
+        return place(width, height, mines, safeZone(width, height, safeIndex), seed);
+    }
+
+    /**
+     * Chooses the cells that receive a mine, anywhere on the board, e.g. for a chunk of the
+     * endless world away from the start.
+     *
+     * @param width  The number of columns.
+     * @param height The number of rows.
+     * @param mines  The number of mines to place.
+     * @param seed   The seed of the random generator.
+     * @return The indices of the mined cells.
+     * @throws IllegalArgumentException if the mines do not fit on the board.
+     */
+    public static int[] place(int width, int height, int mines, long seed) {
+        return place(width, height, mines, new int[0], seed);
+    }
+
+    private static int[] place(int width, int height, int mines, int[] excluded, long seed) {
+        int allowed = width * height - excluded.length;
+        if (mines < 0 || mines > allowed) {
+            throw new IllegalArgumentException("Cannot place " + mines + " mines on " + allowed + " allowed cells");
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] chosen = Bits.create(allowed);
+        int[] result = new int[mines];
+
+        // Floyd's algorithm: for each j in [allowed - mines, allowed), draw t in [0, j]
+        // and take t, or j if t was already taken
+        int n = 0;
+        for (int j = allowed - mines; j < allowed; j++) {
+            int t = random.nextInt(j + 1);
+            int pick = Bits.get(chosen, t) ? j : t;
+            Bits.set(chosen, pick);
+            result[n++] = toCell(pick, excluded);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the largest number of mines that fits outside the safe zone.
+     *
+     * @param width     The number of columns.
+     * @param height    The number of rows.
+     * @param safeIndex The index of the safe tile.
+     * @return The maximum number of mines.
+     */
+    public static int maxMines(int width, int height, int safeIndex) {
+        return width * height - safeZone(width, height, safeIndex).length;
+    }
+
+    /**
+     * Lists the safe tile and its neighbors that lie on the board, in ascending order.
+     */
+    private static int[] safeZone(int width, int height, int safeIndex) {
+        int safeRow = safeIndex / width;
+        int safeCol = safeIndex % width;
+        int rowFrom = Math.max(0, safeRow - 1);
+        int rowTo = Math.min(height - 1, safeRow + 1);
+        int colFrom = Math.max(0, safeCol - 1);
+        int colTo = Math.min(width - 1, safeCol + 1);
+
+        int[] zone = new int[(rowTo - rowFrom + 1) * (colTo - colFrom + 1)];
+        int n = 0;
+        for (int i = rowFrom; i <= rowTo; i++) {
+            for (int j = colFrom; j <= colTo; j++) {
+                zone[n++] = i * width + j;
+            }
+        }
+        return zone;
+    }
+
+    /**
+     * Maps the n-th allowed cell to its board index by skipping the excluded cells.
+     */
+    private static int toCell(int allowedIndex, int[] excluded) {
+        int cell = allowedIndex;
+        for (int e : excluded) {
+            if (e <= cell) {
+                cell++;
+            } else {
+                break;
+            }
+        }
+        return cell;
+    }
+}
@@ -0,0 +1,147 @@
+package minesweeper;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes the neighbor mine counts of a whole board at once from its mine bitset.
+ * <p>
+ * The count of a cell is the sum of the mines in the 3x3 box around it, which separates into a
+ * horizontal sum of three cells per row followed by a vertical sum of three rows. Both sums run
+ * on eight cells at a time packed into a long, one byte per cell: a box holds at most 9 mines,
+ * so no byte ever carries into the next. Large boards are split into stripes of rows counted in
+ * parallel; each stripe only reads the mine rows around it and writes its own rows.
+ * Like the rest of the model, a mine's own cell is included in its count.
+ */
+final class NeighborCounter {
+    private static final int STRIPE_ROWS = 256;     // Rows per parallel task
+    private static final int PARALLEL_CELLS = 1 << 18;  // Smaller boards are counted on the caller's thread
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long[] SPREAD = new long[256];     // Bit k of the index becomes byte k
+
+    static {
+        for (int b = 0; b < 256; b++) {
+            for (int k = 0; k < 8; k++) {
+                if ((b & (1 << k)) != 0) {
+                    SPREAD[b] |= 1L << (k * 8);
+                }
+            }
+        }
+    }
+
+    private NeighborCounter() {
+    }
+
+    /**
+     * Fills in the neighbor mine counts of every cell.
+     *
+     * @param mines  The mine bitset, with no bits set past the last cell.
+     * @param width  The number of columns.
+     * @param height The number of rows.
+     * @param counts The counts to fill in, one per cell.
+     */
+    static void count(long[] mines, int width, int height, byte[] counts) {
+        if ((long) width * height < PARALLEL_CELLS) {
+            countRows(mines, width, height, 0, height, counts);
+            return;
+        }
+        RecursiveAction[] stripes = new RecursiveAction[(height + STRIPE_ROWS - 1) / STRIPE_ROWS];
+        for (int s = 0; s < stripes.length; s++) {
+            int from = s * STRIPE_ROWS;
+            int to = Math.min(height, from + STRIPE_ROWS);
+            stripes[s] = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    countRows(mines, width, height, from, to, counts);
+                }
+            };
+        }
+        ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(stripes);
+            }
+        });
+    }
+
+    /**
+     * Counts a stripe of rows, keeping the horizontal sums of the three rows around the current
+     * one in rolling buffers.
+     */
+    private static void countRows(long[] mines, int width, int height, int from, int to, byte[] counts) {
+        // Buffers are padded so whole longs can be read and written past the last cell
+        byte[] spread = new byte[width + 16];
+        byte[] above = new byte[width + 8];
+        byte[] current = new byte[width + 8];
+        byte[] below = new byte[width + 8];
+        if (from > 0) {
+            horizontalSum(mines, width, from - 1, spread, above);
+        }
+        horizontalSum(mines, width, from, spread, current);
+
+        for (int row = from; row < to; row++) {
+            if (row + 1 < height) {
+                horizontalSum(mines, width, row + 1, spread, below);
+            } else {
+                Arrays.fill(below, (byte) 0);
+            }
+
+            int base = row * width;
+            int c = 0;
+            for (; c + 8 <= width; c += 8) {
+                LONGS.set(counts, base + c,
+                        (long) LONGS.get(above, c) + (long) LONGS.get(current, c) + (long) LONGS.get(below, c));
+            }
+            for (; c < width; c++) {
+                counts[base + c] = (byte) (above[c] + current[c] + below[c]);
+            }
+
+            byte[] free = above;
+            above = current;
+            current = below;
+            below = free;
+        }
+    }
+
+    /**
+     * Sums every cell of a row with its left and right neighbors.
+     *
+     * @param spread Scratch space for the row's mines, one byte per cell.
+     * @param sums   Receives the sums; bytes past the last cell are left zero.
+     */
+    private static void horizontalSum(long[] mines, int width, int row, byte[] spread, byte[] sums) {
+        // Spread the row's bits to bytes, shifted one to the right so spread[c + 1] is cell c
+        int start = row * width;
+        for (int c = 0; c < width; c += 8) {
+            LONGS.set(spread, c + 1, SPREAD[bits8(mines, start + c)]);
+        }
+        // Clear the cells of the next row picked up by the last group
+        Arrays.fill(spread, width + 1, spread.length, (byte) 0);
+
+        int c = 0;
+        for (; c + 8 <= width; c += 8) {
+            LONGS.set(sums, c,
+                    (long) LONGS.get(spread, c) + (long) LONGS.get(spread, c + 1) + (long) LONGS.get(spread, c + 2));
+        }
+        for (; c < width; c++) {
+            sums[c] = (byte) (spread[c] + spread[c + 1] + spread[c + 2]);
+        }
+    }
+
+    /**
+     * Reads the eight bits starting at a bit index, which need not be aligned.
+     */
+    private static int bits8(long[] words, int i) {
+        int word = i >>> 6;
+        int shift = i & 63;
+        long bits = words[word] >>> shift;
+        if (shift > 56 && word + 1 < words.length) {
+            bits |= words[word + 1] << (64 - shift);
+        }
+        return (int) bits & 0xFF;
+    }
+}
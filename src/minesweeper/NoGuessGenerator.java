@@ -0,0 +1,117 @@
+package minesweeper;
+
+import java.util.OptionalLong;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Finds mine layouts that can be cleared from the safe tile without guessing.
+ * Candidate layouts are drawn with {@link MinePlacer} and checked with {@link AutoPlayer} on every
+ * core in parallel; the first candidate the solver wins is returned as the seed that reproduces it.
+ */
+public final class NoGuessGenerator {
+    public static final int DEFAULT_MAX_ATTEMPTS = 100_000;
+
+    private NoGuessGenerator() {
+    }
+
+    /**
+     * Searches for a layout that can be won without guessing, with the default attempt limit.
+     *
+     * @param width     The number of columns.
+     * @param height    The number of rows.
+     * @param mines     The number of mines.
+     * @param safeIndex The index of the safe tile the game starts from.
+     * @param seed      The seed candidate seeds are drawn from.
+     * @return The MinePlacer seed of a solvable layout, or empty if none was found.
+     */
+    public static OptionalLong generate(int width, int height, int mines, int safeIndex, long seed) {
+        return generate(width, height, mines, safeIndex, seed, DEFAULT_MAX_ATTEMPTS, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Searches for a layout that can be won without guessing.
+     *
+     * @param width       The number of columns.
+     * @param height      The number of rows.
+     * @param mines       The number of mines.
+     * @param safeIndex   The index of the safe tile the game starts from.
+     * @param seed        The seed candidate seeds are drawn from.
+     * @param maxAttempts The number of candidates to try before giving up.
+     * @param pool        The pool the candidates are checked on.
+     * @return The MinePlacer seed of a solvable layout, or empty if none was found.
+     */
+    public static OptionalLong generate(int width, int height, int mines, int safeIndex, long seed,
+                                        int maxAttempts, ForkJoinPool pool) {
+        AtomicLong attempts = new AtomicLong();
+        Search search = new Search(width, height, mines, safeIndex, maxAttempts, attempts);
+        SplittableRandom random = new SplittableRandom(seed);
+
+        RecursiveAction[] workers = new RecursiveAction[pool.getParallelism()];
+        for (int i = 0; i < workers.length; i++) {
+            SplittableRandom workerRandom = random.split();
+            workers[i] = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    search.run(workerRandom);
+                }
+            };
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(workers);
+            }
+        });
+        return search.found ? OptionalLong.of(search.result) : OptionalLong.empty();
+    }
+
+    /**
+     * State shared by the workers of one search.
+     */
+    private static final class Search {
+        private final int width;
+        private final int height;
+        private final int mines;
+        private final int safeIndex;
+        private final int maxAttempts;
+        private final AtomicLong attempts;  // Candidates taken so far by all workers
+        private volatile boolean found;
+        private long result;
+
+        Search(int width, int height, int mines, int safeIndex, int maxAttempts, AtomicLong attempts) {
+            this.width = width;
+            this.height = height;
+            this.mines = mines;
+            this.safeIndex = safeIndex;
+            this.maxAttempts = maxAttempts;
+            this.attempts = attempts;
+        }
+
+        /**
+         * Checks candidates until one is solvable, another worker found one, or attempts run out.
+         * Each worker reuses one model, so a candidate costs no allocation beyond its mine list.
+         */
+        void run(SplittableRandom random) {
+            BoardModel model = new BoardModel(this.width, this.height, this.mines);
+            AutoPlayer player = new AutoPlayer(model);
+            while (!this.found && this.attempts.getAndIncrement() < this.maxAttempts) {
+                long candidate = random.nextLong();
+                model.reset();
+                model.placeMines(MinePlacer.place(this.width, this.height, this.mines, this.safeIndex, candidate));
+                if (player.play(this.safeIndex) == BoardModel.WON) {
+                    this.publish(candidate);
+                }
+            }
+        }
+
+        private synchronized void publish(long candidate) {
+            if (!this.found) {
+                this.result = candidate;
+                this.found = true;
+            }
+        }
+    }
+}
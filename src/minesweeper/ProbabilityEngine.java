@@ -0,0 +1,555 @@
+package minesweeper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes the exact probability that each unrevealed cell holds a mine, from what a player can see.
+ * <p>
+ * The frontier (unrevealed cells next to revealed numbers) is split into independent components:
+ * two cells belong to the same component when a chain of numbers links them. The consistent mine
+ * configurations of every component are enumerated in parallel on a ForkJoinPool, and the top of
+ * each search tree is split further into subtasks. Configurations are then weighted by the number
+ * of ways the remaining mines can be spread over the unrevealed cells away from the frontier,
+ * i.e. by C(others, mines - frontier mines).
+ * <p>
+ * Enumeration is exponential in the size of a component; splitting into components and forking
+ * keeps the frontiers of HARD and larger boards interactive.
+ */
+public class ProbabilityEngine {
+    private static final int SPLIT_DEPTH = 12;  // Search depths at which subtrees are forked
+    private static final int MIN_FORK_REMAINING = 16;   // Smaller subtrees are searched in one task
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs an engine that runs on the common ForkJoinPool.
+     */
+    public ProbabilityEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs an engine that runs on the given pool.
+     *
+     * @param pool The pool to enumerate components on.
+     */
+    public ProbabilityEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Computes the mine probability of every cell.
+     *
+     * @param model The board, with the game in progress.
+     * @return The probability of a mine per cell index; revealed cells get 0. If the revealed
+     *         numbers admit no configuration, every unrevealed cell gets NaN.
+     */
+    public double[] compute(BoardModel model) {
+        int cells = model.getCells();
+        double[] probabilities = new double[cells];
+        List<Component> components = findComponents(model);
+
+        int unrevealed = cells - model.getSafeRevealed() - (model.isMineRevealed() ? 1 : 0);
+        int frontier = 0;
+        for (Component component : components) {
+            frontier += component.cells.length;
+        }
+        int others = unrevealed - frontier;     // Unrevealed cells next to no number
+        int mines = model.getMines();
+
+        // Enumerate every component in parallel
+        List<Search> searches = new ArrayList<>();
+        for (Component component : components) {
+            searches.add(new Search(component, mines));
+        }
+        Tally[] tallies = this.pool.invoke(new RecursiveTask<Tally[]>() {
+            @Override
+            protected Tally[] compute() {
+                invokeAll(searches);
+                Tally[] result = new Tally[searches.size()];
+                for (int i = 0; i < result.length; i++) {
+                    result[i] = searches.get(i).join();
+                }
+                return result;
+            }
+        });
+
+        // Weight of "s mines on the frontier": ways to place the rest away from it, relative to the largest
+        double[] rest = restWeights(mines, others, frontier);
+
+        double[] all = convolveAll(tallies, -1);
+        double total = 0;
+        double expectedOthers = 0;
+        for (int s = 0; s < all.length; s++) {
+            double w = all[s] * rest[s];
+            total += w;
+            expectedOthers += w * (mines - s);
+        }
+        if (!(total > 0)) {
+            Arrays.fill(probabilities, Double.NaN);
+            fillRevealed(model, probabilities);
+            return probabilities;
+        }
+
+        // Frontier cells: sum their mine counts over the configurations of the other components
+        for (int i = 0; i < components.size(); i++) {
+            Component component = components.get(i);
+            Tally tally = tallies[i];
+            double[] without = convolveAll(tallies, i);
+            double componentTotal = 0;  // Same as total, but at the scale of "without"
+            for (int k = 0; k < tally.counts.length; k++) {
+                if (tally.perCell[k] == null) {
+                    continue;
+                }
+                double weight = 0;
+                for (int s = 0; s < without.length && s + k < rest.length; s++) {
+                    weight += without[s] * rest[s + k];
+                }
+                componentTotal += tally.counts[k] * weight;
+                for (int j = 0; j < component.cells.length; j++) {
+                    probabilities[component.cells[j]] += tally.perCell[k][j] * weight;
+                }
+            }
+            for (int cell : component.cells) {
+                probabilities[cell] /= componentTotal;
+            }
+        }
+
+        // Cells away from the frontier share the remaining mines evenly
+        double otherProbability = others > 0 ? expectedOthers / total / others : 0;
+        boolean[] onFrontier = new boolean[cells];
+        for (Component component : components) {
+            for (int cell : component.cells) {
+                onFrontier[cell] = true;
+            }
+        }
+        for (int i = 0; i < cells; i++) {
+            if (!model.isRevealed(i) && !onFrontier[i]) {
+                probabilities[i] = otherProbability;
+            }
+        }
+        fillRevealed(model, probabilities);
+        return probabilities;
+    }
+
+    private static void fillRevealed(BoardModel model, double[] probabilities) {
+        for (int i = 0; i < probabilities.length; i++) {
+            if (model.isRevealed(i)) {
+                probabilities[i] = 0;
+            }
+        }
+    }
+
+    /**
+     * Computes C(others, mines - s) for every frontier mine count s, scaled so the largest is 1.
+     */
+    private static double[] restWeights(int mines, int others, int frontier) {
+        double[] logWeights = new double[frontier + 1];
+        double max = Double.NEGATIVE_INFINITY;
+        double log = 0;     // log C(others, r) relative to r = min(mines, others)
+        int top = Math.min(mines, others);
+        for (int r = top; r >= 0; r--) {
+            int s = mines - r;
+            if (s <= frontier) {
+                logWeights[s] = log;
+                max = Math.max(max, log);
+            }
+            // C(others, r - 1) = C(others, r) * r / (others - r + 1)
+            log += Math.log(r) - Math.log(others - r + 1.0);
+        }
+        double[] weights = new double[frontier + 1];
+        for (int s = 0; s <= frontier; s++) {
+            int r = mines - s;
+            weights[s] = r >= 0 && r <= others ? Math.exp(logWeights[s] - max) : 0;
+        }
+        return weights;
+    }
+
+    /**
+     * Convolves the mine-count distributions of all components except one.
+     *
+     * @param skip The component to leave out, or -1 to use all of them.
+     * @return The number of configurations per total mine count, up to a common factor.
+     */
+    private static double[] convolveAll(Tally[] tallies, int skip) {
+        double[] result = {1};
+        for (int i = 0; i < tallies.length; i++) {
+            if (i == skip) {
+                continue;
+            }
+            double[] counts = tallies[i].counts;
+            double[] next = new double[result.length + counts.length - 1];
+            double max = 0;
+            for (int a = 0; a < result.length; a++) {
+                if (result[a] == 0) {
+                    continue;
+                }
+                for (int b = 0; b < counts.length; b++) {
+                    next[a + b] += result[a] * counts[b];
+                }
+            }
+            for (double v : next) {
+                max = Math.max(max, v);
+            }
+            // Rescale to keep products of many components in range; the factor cancels out
+            if (max > 0) {
+                for (int s = 0; s < next.length; s++) {
+                    next[s] /= max;
+                }
+            }
+            result = next;
+        }
+        return result;
+    }
+
+    /**
+     * Splits the frontier into components linked by shared numbers.
+     */
+    private static List<Component> findComponents(BoardModel model) {
+        int width = model.getWidth();
+        int height = model.getHeight();
+        int cells = model.getCells();
+        int[] parent = new int[cells];
+        Arrays.fill(parent, -1);
+
+        // Union the unrevealed neighbors of every revealed number
+        IntList constraints = new IntList();
+        for (int i = 0; i < cells; i++) {
+            if (!model.isRevealed(i) || model.hasMine(i)) {
+                continue;
+            }
+            int first = -1;
+            int row = i / width;
+            int col = i % width;
+            for (int r = Math.max(0, row - 1); r <= Math.min(height - 1, row + 1); r++) {
+                for (int c = Math.max(0, col - 1); c <= Math.min(width - 1, col + 1); c++) {
+                    int n = r * width + c;
+                    if (model.isRevealed(n)) {
+                        continue;
+                    }
+                    if (parent[n] < 0) {
+                        parent[n] = n;
+                    }
+                    if (first < 0) {
+                        first = n;
+                    } else {
+                        union(parent, first, n);
+                    }
+                }
+            }
+            if (first >= 0) {
+                constraints.add(i);
+            }
+        }
+
+        // Group cells by root, in board order
+        int[] componentOf = new int[cells];
+        List<IntList> groups = new ArrayList<>();
+        for (int i = 0; i < cells; i++) {
+            if (parent[i] < 0) {
+                continue;
+            }
+            int root = find(parent, i);
+            if (root == i) {
+                componentOf[i] = groups.size();
+                groups.add(new IntList());
+            }
+        }
+        for (int i = 0; i < cells; i++) {
+            if (parent[i] >= 0) {
+                groups.get(componentOf[find(parent, i)]).add(i);
+            }
+        }
+
+        List<List<int[]>> constraintCells = new ArrayList<>();
+        List<IntList> constraintNeeds = new ArrayList<>();
+        for (int g = 0; g < groups.size(); g++) {
+            constraintCells.add(new ArrayList<>());
+            constraintNeeds.add(new IntList());
+        }
+        IntList neighbors = new IntList(8);
+        for (int k = 0; k < constraints.size(); k++) {
+            int i = constraints.get(k);
+            neighbors.clear();
+            int row = i / width;
+            int col = i % width;
+            for (int r = Math.max(0, row - 1); r <= Math.min(height - 1, row + 1); r++) {
+                for (int c = Math.max(0, col - 1); c <= Math.min(width - 1, col + 1); c++) {
+                    int n = r * width + c;
+                    if (!model.isRevealed(n)) {
+                        neighbors.add(n);
+                    }
+                }
+            }
+            int g = componentOf[find(parent, neighbors.get(0))];
+            constraintCells.get(g).add(neighbors.toArray());
+            constraintNeeds.get(g).add(model.getNeighborMineCount(i));
+        }
+
+        List<Component> components = new ArrayList<>();
+        for (int g = 0; g < groups.size(); g++) {
+            components.add(new Component(groups.get(g).toArray(), constraintCells.get(g),
+                    constraintNeeds.get(g).toArray()));
+        }
+        return components;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int ra = find(parent, a);
+        int rb = find(parent, b);
+        if (ra != rb) {
+            parent[Math.max(ra, rb)] = Math.min(ra, rb);
+        }
+    }
+
+    /**
+     * A connected part of the frontier and the numbers that constrain it.
+     */
+    private static final class Component {
+        final int[] cells;  // Board indices, in search order
+        final int[][] constraintsOf;    // Constraints each cell takes part in
+        final int[] needed;     // Mines each constraint needs
+        final int[] size;   // Cells in each constraint
+
+        Component(int[] boardCells, List<int[]> constraintCells, int[] needed) {
+            this.cells = searchOrder(boardCells, constraintCells);
+            this.needed = needed;
+            this.size = new int[needed.length];
+
+            IntList[] lists = new IntList[this.cells.length];
+            for (int j = 0; j < this.cells.length; j++) {
+                lists[j] = new IntList(4);
+            }
+            for (int c = 0; c < constraintCells.size(); c++) {
+                for (int cell : constraintCells.get(c)) {
+                    lists[indexOf(this.cells, cell)].add(c);
+                }
+                this.size[c] = constraintCells.get(c).length;
+            }
+            this.constraintsOf = new int[this.cells.length][];
+            for (int j = 0; j < this.cells.length; j++) {
+                this.constraintsOf[j] = lists[j].toArray();
+            }
+        }
+
+        /**
+         * Orders cells so each one shares a constraint with an earlier one, which lets
+         * constraints close early in the search.
+         */
+        private static int[] searchOrder(int[] boardCells, List<int[]> constraintCells) {
+            int[] order = new int[boardCells.length];
+            boolean[] placed = new boolean[boardCells.length];
+            boolean[] used = new boolean[constraintCells.size()];
+            int n = 0;
+            int head = 0;
+            order[n++] = boardCells[0];
+            placed[0] = true;
+            while (head < n) {
+                int cell = order[head++];
+                for (int c = 0; c < constraintCells.size(); c++) {
+                    if (used[c] || indexOf(constraintCells.get(c), cell) < 0) {
+                        continue;
+                    }
+                    used[c] = true;
+                    for (int other : constraintCells.get(c)) {
+                        int j = Arrays.binarySearch(boardCells, other);
+                        if (!placed[j]) {
+                            placed[j] = true;
+                            order[n++] = other;
+                        }
+                    }
+                }
+            }
+            return order;
+        }
+
+        private static int indexOf(int[] values, int value) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Configurations of a component grouped by their number of mines.
+     */
+    private static final class Tally {
+        final double[] counts;  // Configurations with k mines
+        final double[][] perCell;   // Of those, how many put a mine on each cell; null if none
+
+        Tally(int cells) {
+            this.counts = new double[cells + 1];
+            this.perCell = new double[cells + 1][];
+        }
+
+        void add(byte[] assignment, int mines) {
+            this.counts[mines]++;
+            if (this.perCell[mines] == null) {
+                this.perCell[mines] = new double[assignment.length];
+            }
+            double[] row = this.perCell[mines];
+            for (int j = 0; j < assignment.length; j++) {
+                row[j] += assignment[j];
+            }
+        }
+
+        void merge(Tally other) {
+            for (int k = 0; k < this.counts.length; k++) {
+                this.counts[k] += other.counts[k];
+                if (other.perCell[k] == null) {
+                    continue;
+                }
+                if (this.perCell[k] == null) {
+                    this.perCell[k] = other.perCell[k].clone();
+                } else {
+                    for (int j = 0; j < other.perCell[k].length; j++) {
+                        this.perCell[k][j] += other.perCell[k][j];
+                    }
+                }
+            }
+        }
+
+        /**
+         * Scales the tally so its largest count is 1; probabilities only depend on ratios.
+         */
+        void normalize() {
+            double max = 0;
+            for (double count : this.counts) {
+                max = Math.max(max, count);
+            }
+            if (max == 0) {
+                return;
+            }
+            for (int k = 0; k < this.counts.length; k++) {
+                this.counts[k] /= max;
+                if (this.perCell[k] != null) {
+                    for (int j = 0; j < this.perCell[k].length; j++) {
+                        this.perCell[k][j] /= max;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Backtracking search over a component's cells. The first levels of the tree are forked
+     * into subtasks; deeper levels are searched sequentially.
+     */
+    @SuppressWarnings("serial")  // Tasks are never serialized
+    private static final class Search extends RecursiveTask<Tally> {
+        private final Component component;
+        private final int maxMines;     // Mines left on the whole board
+        private final int depth;    // Next cell to assign
+        private final byte[] assignment;    // 1 for a mine, per cell
+        private final int[] placed;     // Mines placed per constraint
+        private final int[] open;   // Cells not yet assigned per constraint
+        private final int mines;    // Mines placed so far
+        private final boolean root;
+
+        Search(Component component, int maxMines) {
+            this(component, maxMines, 0, new byte[component.cells.length], new int[component.needed.length],
+                    component.size.clone(), 0, true);
+        }
+
+        private Search(Component component, int maxMines, int depth, byte[] assignment, int[] placed,
+                       int[] open, int mines, boolean root) {
+            this.component = component;
+            this.maxMines = maxMines;
+            this.depth = depth;
+            this.assignment = assignment;
+            this.placed = placed;
+            this.open = open;
+            this.mines = mines;
+            this.root = root;
+        }
+
+        @Override
+        protected Tally compute() {
+            Tally tally;
+            int remaining = this.component.cells.length - this.depth;
+            if (this.depth < SPLIT_DEPTH && remaining > MIN_FORK_REMAINING) {
+                List<Search> children = new ArrayList<>(2);
+                for (byte value = 0; value <= 1; value++) {
+                    if (this.fits(this.depth, value, this.placed, this.open, this.mines)) {
+                        byte[] a = this.assignment.clone();
+                        int[] p = this.placed.clone();
+                        int[] o = this.open.clone();
+                        this.assign(this.depth, value, a, p, o);
+                        children.add(new Search(this.component, this.maxMines, this.depth + 1, a, p, o,
+                                this.mines + value, false));
+                    }
+                }
+                invokeAll(children);
+                tally = new Tally(this.component.cells.length);
+                for (Search child : children) {
+                    tally.merge(child.join());
+                }
+            } else {
+                tally = new Tally(this.component.cells.length);
+                this.search(this.depth, this.mines, tally);
+            }
+            if (this.root) {
+                tally.normalize();
+            }
+            return tally;
+        }
+
+        private void search(int cell, int mines, Tally tally) {
+            if (cell == this.assignment.length) {
+                tally.add(this.assignment, mines);
+                return;
+            }
+            for (byte value = 0; value <= 1; value++) {
+                if (this.fits(cell, value, this.placed, this.open, mines)) {
+                    this.assign(cell, value, this.assignment, this.placed, this.open);
+                    this.search(cell + 1, mines + value, tally);
+                    this.unassign(cell, value, this.assignment, this.placed, this.open);
+                }
+            }
+        }
+
+        private boolean fits(int cell, int value, int[] placed, int[] open, int mines) {
+            if (mines + value > this.maxMines) {
+                return false;
+            }
+            for (int c : this.component.constraintsOf[cell]) {
+                int p = placed[c] + value;
+                if (p > this.component.needed[c] || p + open[c] - 1 < this.component.needed[c]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void assign(int cell, byte value, byte[] assignment, int[] placed, int[] open) {
+            assignment[cell] = value;
+            for (int c : this.component.constraintsOf[cell]) {
+                placed[c] += value;
+                open[c]--;
+            }
+        }
+
+        private void unassign(int cell, byte value, byte[] assignment, int[] placed, int[] open) {
+            assignment[cell] = 0;
+            for (int c : this.component.constraintsOf[cell]) {
+                placed[c] -= value;
+                open[c]++;
+            }
+        }
+    }
+}
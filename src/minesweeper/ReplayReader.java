@@ -0,0 +1,209 @@
+package minesweeper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Plays back a replay written by {@link ReplayWriter}.
+ * The file is memory-mapped and indexed once on open: only the positions of checkpoints are kept.
+ * {@link #seek(int)} restores the nearest checkpoint at or before the requested move and replays
+ * the few events after it, so any point of a long game can be reached quickly.
+ */
+public class ReplayReader implements Closeable {
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    private final int safeIndex;
+    private final long seed;
+    private final BoardModel model;     // Board state at the last seek
+    private final FloodFill floodFill;
+    private final long[] revealed;  // Scratch bitsets for checkpoints
+    private final long[] flagged;
+
+    private final int firstEvent;   // Offset of the first event
+    private final IntList checkpointEvents;     // Events before each checkpoint
+    private final IntList checkpointOffsets;    // Offset of each checkpoint's payload
+    private final int eventCount;
+    private long millis;    // Game time at the last seek
+
+    /**
+     * Opens and indexes a replay file.
+     *
+     * @param file The replay to open.
+     * @throws IOException if the file cannot be read, is not a replay or is cut short.
+     */
+    public ReplayReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, this.channel.size());
+
+        try {
+            if (this.buffer.getInt() != ReplayWriter.MAGIC || this.buffer.get() != ReplayWriter.VERSION) {
+                this.channel.close();
+                throw new IOException("Not a replay file: " + file);
+            }
+            int width = BinaryCodec.getVarInt(this.buffer);
+            int height = BinaryCodec.getVarInt(this.buffer);
+            int mines = BinaryCodec.getVarInt(this.buffer);
+            this.safeIndex = BinaryCodec.getVarInt(this.buffer);
+            this.seed = BinaryCodec.unzigzag(BinaryCodec.getVarLong(this.buffer));
+
+            this.model = new BoardModel(width, height, mines);
+            this.floodFill = new FloodFill(this.model);
+            this.revealed = Bits.create(this.model.getCells());
+            this.flagged = Bits.create(this.model.getCells());
+            BinaryCodec.getBits(this.buffer, this.revealed, this.model.getCells());
+            this.model.placeMines(this.revealed);
+            this.firstEvent = this.buffer.position();
+
+            // Index checkpoints, skipping over their payloads
+            this.checkpointEvents = new IntList();
+            this.checkpointOffsets = new IntList();
+            int events = 0;
+            while (this.buffer.hasRemaining()) {
+                byte kind = this.buffer.get();
+                if (kind == ReplayWriter.CHECKPOINT) {
+                    int length = BinaryCodec.getVarInt(this.buffer);
+                    this.checkpointEvents.add(events);
+                    this.checkpointOffsets.add(this.buffer.position());
+                    this.buffer.position(this.buffer.position() + length);
+                } else {
+                    BinaryCodec.getVarLong(this.buffer);
+                    BinaryCodec.getVarLong(this.buffer);
+                    events++;
+                }
+            }
+            this.eventCount = events;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            // The file ends inside the header, an event or a checkpoint, or its board is invalid
+            this.channel.close();
+            throw new IOException("Truncated or corrupt replay file: " + file, e);
+        }
+    }
+
+    /**
+     * Rebuilds the board as it was after the given number of events.
+     *
+     * @param events The number of events to apply, between 0 and {@link #getEventCount()}.
+     * @return The board at that point. The same model is reused by the next seek.
+     */
+    public BoardModel seek(int events) {
+        if (events < 0 || events > this.eventCount) {
+            throw new IllegalArgumentException("No event " + events + " in a replay of " + this.eventCount);
+        }
+        ByteBuffer in = this.buffer.duplicate();
+        int applied = 0;
+        this.millis = 0;
+        int cell = 0;
+        Arrays.fill(this.revealed, 0L);
+        Arrays.fill(this.flagged, 0L);
+
+        // Start from the last checkpoint at or before the target
+        int checkpoint = this.findCheckpoint(events);
+        if (checkpoint >= 0) {
+            in.position(this.checkpointOffsets.get(checkpoint));
+            applied = BinaryCodec.getVarInt(in);
+            this.millis = BinaryCodec.getVarLong(in);
+            BinaryCodec.getBits(in, this.revealed, this.model.getCells());
+            BinaryCodec.getBits(in, this.flagged, this.model.getCells());
+        } else {
+            in.position(this.firstEvent);
+        }
+        this.model.restore(this.revealed, this.flagged);
+
+        while (applied < events) {
+            byte kind = in.get();
+            if (kind == ReplayWriter.CHECKPOINT) {
+                in.position(in.position() + BinaryCodec.getVarInt(in));
+                cell = 0;
+                continue;
+            }
+            this.millis += BinaryCodec.getVarLong(in);
+            cell += (int) BinaryCodec.unzigzag(BinaryCodec.getVarLong(in));
+            if (kind == ReplayWriter.REVEAL) {
+                this.floodFill.open(cell);
+            } else if (kind == ReplayWriter.FLAG) {
+                this.model.setFlagged(cell, !this.model.isFlagged(cell));
+            } else if (kind == ReplayWriter.CHORD) {
+                this.floodFill.chord(cell);
+            }
+            applied++;
+        }
+        return this.model;
+    }
+
+    /**
+     * Finds the last checkpoint taken after at most the given number of events.
+     *
+     * @return The position of the checkpoint in the index, or -1 if there is none.
+     */
+    private int findCheckpoint(int events) {
+        int low = 0;
+        int high = this.checkpointEvents.size() - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (this.checkpointEvents.get(middle) <= events) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found;
+    }
+
+    public int getEventCount() {
+        return this.eventCount;
+    }
+
+    public int getSafeIndex() {
+        return this.safeIndex;
+    }
+
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Gets the game time of the board returned by the last seek.
+     *
+     * @return The time of the last applied event in milliseconds.
+     */
+    public long getMillis() {
+        return this.millis;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Prints a summary of a replay and the board at the given move.
+     *
+     * @param args The replay file, and optionally the number of events to seek to.
+     * @throws IOException if the file cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        try (ReplayReader reader = new ReplayReader(Paths.get(args[0]))) {
+            int events = args.length > 1 ? Integer.parseInt(args[1]) : reader.getEventCount();
+            long start = System.nanoTime();
+            BoardModel board = reader.seek(events);
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf("%dx%d, %d mines, seed %d, %d events%n", board.getWidth(), board.getHeight(),
+                    board.getMines(), reader.getSeed(), reader.getEventCount());
+            System.out.printf("After %d events (%.3f s): %d safe cells revealed, %d flags, state %d "
+                            + "(seek took %.2f ms)%n", events, reader.getMillis() / 1000.0, board.getSafeRevealed(),
+                    board.getFlagCount(), board.getState(), elapsed / 1e6);
+        }
+    }
+}
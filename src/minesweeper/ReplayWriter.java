@@ -0,0 +1,146 @@
+package minesweeper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records a game as a compact, append-only binary event log.
+ * <p>
+ * The header holds the board size, mine count, safe tile, seed and the mine layout. Each event is
+ * a kind byte, the milliseconds since the previous event and the signed distance to the previous
+ * event's cell, both as varints, so a typical click costs three or four bytes. Every
+ * {@link #CHECKPOINT_INTERVAL} events a checkpoint with the revealed and flagged cells is
+ * appended, which lets {@link ReplayReader} seek without replaying from the first move.
+ */
+public class ReplayWriter implements Closeable {
+    public static final int MAGIC = 0x4D535250;     // "MSRP"
+    public static final int VERSION = 1;
+    public static final int CHECKPOINT_INTERVAL = 32;
+
+    public static final byte REVEAL = 1;
+    public static final byte FLAG = 2;
+    public static final byte CHECKPOINT = 3;
+    public static final byte CHORD = 4;
+
+    private final FileChannel channel;
+    private final BoardModel model;
+    private final BinaryCodec.Output out;
+    private final BinaryCodec.Output payload;   // Checkpoint contents before their length is known
+
+    private int events;     // Events written so far
+    private long lastMillis;    // Time of the previous event
+    private int lastCell;   // Cell of the previous event
+
+    /**
+     * Creates a replay file and writes its header. Mines must already be placed on the model.
+     *
+     * @param file      The file to create.
+     * @param model     The board being recorded.
+     * @param safeIndex The index of the safe tile.
+     * @param seed      The seed of the mine layout.
+     * @throws IOException if the file cannot be created.
+     */
+    public ReplayWriter(Path file, BoardModel model, int safeIndex, long seed) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.model = model;
+        this.out = new BinaryCodec.Output();
+        this.payload = new BinaryCodec.Output();
+
+        this.out.putInt(MAGIC);
+        this.out.putByte(VERSION);
+        this.out.putVarInt(model.getWidth());
+        this.out.putVarInt(model.getHeight());
+        this.out.putVarInt(model.getMines());
+        this.out.putVarInt(safeIndex);
+        this.out.putVarLong(BinaryCodec.zigzag(seed));
+        this.out.putBits(model.getMineBits(), model.getCells());
+        this.flush();
+    }
+
+    /**
+     * Appends an event, and a checkpoint of the board after it when one is due.
+     * Call it after the action has been applied to the model.
+     *
+     * @param kind   {@link #REVEAL}, {@link #FLAG} or {@link #CHORD}.
+     * @param cell   The index of the cell acted on.
+     * @param millis The game time of the event in milliseconds.
+     * @throws IOException if the event cannot be written.
+     */
+    public void record(byte kind, int cell, long millis) throws IOException {
+        this.out.putByte(kind);
+        this.out.putVarLong(Math.max(0, millis - this.lastMillis));
+        this.out.putVarLong(BinaryCodec.zigzag(cell - this.lastCell));
+        this.lastMillis = Math.max(this.lastMillis, millis);
+        this.lastCell = cell;
+        this.events++;
+
+        if (this.events % CHECKPOINT_INTERVAL == 0) {
+            this.writeCheckpoint();
+        }
+        this.flush();
+    }
+
+    /**
+     * Appends the revealed and flagged cells. Deltas restart after a checkpoint, so decoding can
+     * begin at any checkpoint.
+     */
+    private void writeCheckpoint() {
+        this.payload.clear();
+        this.payload.putVarInt(this.events);
+        this.payload.putVarLong(this.lastMillis);
+        this.payload.putBits(this.model.getRevealedBits(), this.model.getCells());
+        this.payload.putBits(this.model.getFlaggedBits(), this.model.getCells());
+
+        this.out.putByte(CHECKPOINT);
+        this.out.putVarInt(this.payload.size());
+        this.out.putAll(this.payload);
+        this.lastCell = 0;
+    }
+
+    private void flush() throws IOException {
+        ByteBuffer buffer = this.out.toByteBuffer();
+        while (buffer.hasRemaining()) {
+            this.channel.write(buffer);
+        }
+        this.out.clear();
+    }
+
+    /**
+     * Deletes the oldest replays in a directory so that at most the given number remain. Replays
+     * are named after the time they were started, so their names sort oldest first.
+     *
+     * @param dir  The directory of the replays.
+     * @param keep The number of replays to keep.
+     * @throws IOException if the directory cannot be listed or a replay cannot be deleted.
+     */
+    public static void prune(Path dir, int keep) throws IOException {
+        List<Path> replays = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.msr")) {
+            for (Path file : files) {
+                replays.add(file);
+            }
+        }
+        replays.sort(null);
+        for (int i = 0; i < replays.size() - keep; i++) {
+            Files.deleteIfExists(replays.get(i));
+        }
+    }
+
+    public int getEvents() {
+        return this.events;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
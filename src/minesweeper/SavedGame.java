@@ -0,0 +1,179 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A snapshot of a game in progress, stored as a fixed header followed by the mine, revealed and
+ * flagged bitsets as raw 64-bit words. Reading and writing are single bulk channel transfers, so
+ * saving or resuming even a very large board is limited by the disk rather than by encoding.
+ */
+public class SavedGame {
+    private static final int MAGIC = 0x4D535356;    // "MSSV"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 7 * Integer.BYTES + 2 * Long.BYTES;
+    private static final int NO_GUESS = 1;  // Header flag of a no-guess game
+
+    private final int width;
+    private final int height;
+    private final int mines;
+    private final int safeIndex;    // Index of the safe tile
+    private final long seed;    // Seed of the mine layout
+    private final long elapsedMillis;   // Time played so far
+    private final boolean noGuess;  // Whether the game was started in no-guess mode
+    private final long[] mineBits;
+    private final long[] revealedBits;
+    private final long[] flaggedBits;
+
+    private SavedGame(int width, int height, int mines, int safeIndex, long seed, long elapsedMillis,
+                      boolean noGuess, long[] mineBits, long[] revealedBits, long[] flaggedBits) {
+        this.width = width;
+        this.height = height;
+        this.mines = mines;
+        this.safeIndex = safeIndex;
+        this.seed = seed;
+        this.elapsedMillis = elapsedMillis;
+        this.noGuess = noGuess;
+        this.mineBits = mineBits;
+        this.revealedBits = revealedBits;
+        this.flaggedBits = flaggedBits;
+    }
+
+    /**
+     * Writes a snapshot of a board. The file is written next to its destination and moved into
+     * place, so a crash while saving never leaves a truncated save behind.
+     *
+     * @param file          The file to write.
+     * @param model         The board to save.
+     * @param safeIndex     The index of the safe tile.
+     * @param seed          The seed of the mine layout.
+     * @param elapsedMillis The time played so far.
+     * @param noGuess       True if the game was started in no-guess mode.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void save(Path file, BoardModel model, int safeIndex, long seed, long elapsedMillis,
+                            boolean noGuess) throws IOException {
+        long[] mineBits = model.getMineBits();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 3 * mineBits.length * Long.BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION)
+                .putInt(model.getWidth()).putInt(model.getHeight()).putInt(model.getMines()).putInt(safeIndex)
+                .putLong(seed).putLong(elapsedMillis).putInt(noGuess ? NO_GUESS : 0);
+        LongBuffer words = buffer.asLongBuffer();
+        words.put(mineBits).put(model.getRevealedBits()).put(model.getFlaggedBits());
+        buffer.position(buffer.position() + words.position() * Long.BYTES).flip();
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a snapshot. A save is rejected unless its safe tile lies on the board, its mine count
+     * matches the mines in its bitset, and no bitset has bits set past the last cell, so a corrupt
+     * save never reaches a board.
+     *
+     * @param file The file to read.
+     * @return The saved game.
+     * @throws IOException if the file cannot be read or is not a valid save.
+     */
+    public static SavedGame load(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Not a saved game: " + file);
+            }
+            buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading until the buffer is full
+            }
+            buffer.flip();
+        }
+
+        int magic = buffer.getInt();
+        int version = buffer.getInt();
+        if (magic != MAGIC || version != VERSION) {
+            throw new IOException("Not a saved game: " + file);
+        }
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        int mines = buffer.getInt();
+        int safeIndex = buffer.getInt();
+        long seed = buffer.getLong();
+        long elapsedMillis = buffer.getLong();
+        boolean noGuess = (buffer.getInt() & NO_GUESS) != 0;
+
+        long cells = (long) width * height;
+        int words = (int) ((cells + 63) >>> 6);
+        if (width <= 0 || height <= 0 || cells > Integer.MAX_VALUE || buffer.remaining() != 3L * words * Long.BYTES
+                || safeIndex < 0 || safeIndex >= cells) {
+            throw new IOException("Corrupt saved game: " + file);
+        }
+        LongBuffer in = buffer.asLongBuffer();
+        long[] mineBits = new long[words];
+        long[] revealedBits = new long[words];
+        long[] flaggedBits = new long[words];
+        in.get(mineBits).get(revealedBits).get(flaggedBits);
+
+        long padding = cells % 64 == 0 ? 0 : -1L << (cells % 64);   // Bits of the last word past the last cell
+        if (Bits.count(mineBits) != mines || ((mineBits[words - 1] | revealedBits[words - 1]
+                | flaggedBits[words - 1]) & padding) != 0) {
+            throw new IOException("Corrupt saved game: " + file);
+        }
+        return new SavedGame(width, height, mines, safeIndex, seed, elapsedMillis, noGuess, mineBits, revealedBits,
+                flaggedBits);
+    }
+
+    /**
+     * Restores the saved mines, revealed cells and flags onto a board of the same size.
+     *
+     * @param model The board to restore onto.
+     */
+    public void restore(BoardModel model) {
+        if (model.getWidth() != this.width || model.getHeight() != this.height || model.getMines() != this.mines) {
+            throw new IllegalArgumentException("Saved game is " + this.width + "x" + this.height + " with "
+                    + this.mines + " mines");
+        }
+        model.placeMines(this.mineBits);
+        model.restore(this.revealedBits, this.flaggedBits);
+    }
+
+    public int getWidth() {
+        return this.width;
+    }
+
+    public int getHeight() {
+        return this.height;
+    }
+
+    public int getMines() {
+        return this.mines;
+    }
+
+    public int getSafeIndex() {
+        return this.safeIndex;
+    }
+
+    public long getSeed() {
+        return this.seed;
+    }
+
+    public long getElapsedMillis() {
+        return this.elapsedMillis;
+    }
+
+    public boolean isNoGuess() {
+        return this.noGuess;
+    }
+}
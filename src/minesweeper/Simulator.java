@@ -0,0 +1,175 @@
+package minesweeper;
+
+import java.util.OptionalLong;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Headless batch simulation: plays many games per difficulty across all cores and reports
+ * win rate, opening size, 3BV and ideal clicks, generation and play time, and throughput.
+ * <p>
+ * Games are split into ranges on a work-stealing ForkJoinPool. Each game derives its own seed
+ * from the run seed and its number, so a run is reproducible regardless of scheduling, and
+ * results are collected in LongAdder accumulators so workers never contend on a lock.
+ * <p>
+ * Usage: {@code java minesweeper.Simulator [games] [random|solver|probability] [seed] [noguess]}
+ */
+public class Simulator {
+    private static final int GAMES_PER_TASK = 256;  // Games a task plays before it stops splitting
+
+    private final int size;
+    private final int mines;
+    private final Strategy strategy;
+    private final boolean noGuess;
+
+    // Accumulated over all games of a run
+    private final LongAdder games = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+    private final LongAdder openingCells = new LongAdder();
+    private final LongAdder guesses = new LongAdder();
+    private final LongAdder threeBV = new LongAdder();
+    private final LongAdder idealClicks = new LongAdder();
+    private final LongAdder noGuessFailures = new LongAdder();  // No-guess searches that found no layout
+    private final LongAdder generationNanos = new LongAdder();
+    private final LongAdder playNanos = new LongAdder();
+
+    /**
+     * Constructs a simulator for one board configuration.
+     *
+     * @param size     The size of the board.
+     * @param mines    The number of mines on the board.
+     * @param strategy The strategy that plays the games.
+     * @param noGuess  True to play only boards that can be solved without guessing.
+     */
+    public Simulator(int size, int mines, Strategy strategy, boolean noGuess) {
+        this.size = size;
+        this.mines = mines;
+        this.strategy = strategy;
+        this.noGuess = noGuess;
+    }
+
+    /**
+     * Plays games in parallel.
+     *
+     * @param count The number of games.
+     * @param seed  The seed of the run.
+     * @param pool  The pool to play on.
+     * @return The wall-clock time of the run in nanoseconds.
+     */
+    public long run(int count, long seed, ForkJoinPool pool) {
+        long start = System.nanoTime();
+        pool.invoke(new Games(0, count, seed));
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Generates, analyzes and plays one game. In no-guess mode a game whose search finds no layout
+     * is not played, only counted, so it cannot pass for a no-guess game in the results.
+     */
+    private void playGame(long seed, BoardAnalyzer analyzer) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int safeIndex = random.nextInt(this.size * this.size);
+
+        long generationStart = System.nanoTime();
+        long layoutSeed = random.nextLong();
+        if (this.noGuess) {
+            OptionalLong found = NoGuessGenerator.generate(this.size, this.size, this.mines, safeIndex, layoutSeed);
+            if (found.isEmpty()) {
+                this.noGuessFailures.increment();
+                return;
+            }
+            layoutSeed = found.getAsLong();
+        }
+        BoardModel model = new BoardModel(this.size, this.size, this.mines);
+        model.placeMines(MinePlacer.place(this.size, this.size, this.mines, safeIndex, layoutSeed));
+        analyzer.analyze(model);
+        long playStart = System.nanoTime();
+
+        AutoPlayer player = new AutoPlayer(model);
+        int opening = player.open(safeIndex);
+        int guessCount = this.strategy.play(player, model, random);
+        long end = System.nanoTime();
+
+        this.games.increment();
+        if (model.getState() == BoardModel.WON) {
+            this.wins.increment();
+        }
+        this.openingCells.add(opening);
+        this.guesses.add(guessCount);
+        this.threeBV.add(analyzer.getThreeBV());
+        this.idealClicks.add(analyzer.getIdealClicks());
+        this.generationNanos.add(playStart - generationStart);
+        this.playNanos.add(end - playStart);
+    }
+
+    /**
+     * Formats the results of a run.
+     *
+     * @param name        The name of the configuration.
+     * @param elapsedNanos The wall-clock time of the run.
+     * @return A one-line report.
+     */
+    public String report(String name, long elapsedNanos) {
+        long n = Math.max(1, this.games.sum());
+        return String.format("%-8s %,10d games  win %6.2f%%  opening %7.1f cells  guesses %5.2f  "
+                        + "3BV %6.1f  ideal %6.1f  generate %8.1f us  play %8.1f us  %,12.0f games/s%s",
+                name, this.games.sum(), 100.0 * this.wins.sum() / n, (double) this.openingCells.sum() / n,
+                (double) this.guesses.sum() / n, (double) this.threeBV.sum() / n, (double) this.idealClicks.sum() / n,
+                this.generationNanos.sum() / 1e3 / n, this.playNanos.sum() / 1e3 / n,
+                this.games.sum() / (elapsedNanos / 1e9),
+                this.noGuessFailures.sum() > 0 ? String.format("  %,d no-guess searches failed", this.noGuessFailures.sum()) : "");
+    }
+
+    /**
+     * A range of games, split in half until it is small enough to play in one task.
+     */
+    @SuppressWarnings("serial")  // Tasks are never serialized
+    private final class Games extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final long seed;
+
+        Games(int from, int to, long seed) {
+            this.from = from;
+            this.to = to;
+            this.seed = seed;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > GAMES_PER_TASK) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new Games(this.from, middle, this.seed), new Games(middle, this.to, this.seed));
+                return;
+            }
+            BoardAnalyzer analyzer = new BoardAnalyzer();   // Reused by every game of this task
+            for (int game = this.from; game < this.to; game++) {
+                // Mix the game number into the run seed so every game has its own stream
+                playGame(new SplittableRandom(this.seed + game * 0x9E3779B97F4A7C15L).nextLong(), analyzer);
+            }
+        }
+    }
+
+    /**
+     * Runs the simulation for every difficulty and prints a throughput report.
+     *
+     * @param args Optional: number of games per difficulty, strategy name, seed, and "noguess".
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Strategy strategy = Strategy.forName(args.length > 1 ? args[1] : "solver");
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        boolean noGuess = args.length > 3 && args[3].equals("noguess");
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        System.out.printf("%,d games per difficulty on %d threads%n", count, pool.getParallelism());
+        for (String difficulty : new String[]{Difficulty.EASY, Difficulty.MEDIUM, Difficulty.HARD}) {
+            int[] sizeAndMines = Difficulty.getSizeAndMines(difficulty);
+            Simulator simulator = new Simulator(sizeAndMines[0], sizeAndMines[1], strategy, noGuess);
+            long elapsed = simulator.run(count, seed, pool);
+            System.out.println(simulator.report(difficulty, elapsed));
+        }
+    }
+}
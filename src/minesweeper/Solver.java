@@ -0,0 +1,319 @@
+package minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * Deterministic constraint-propagation solver.
+ * The solver only looks at what a player can see: which cells are revealed and the numbers on
+ * them. From each revealed number it derives a constraint "r of these unknown neighbors are
+ * mines" and applies two rules:
+ * <ul>
+ *     <li>single cell: if r is 0 every unknown neighbor is safe, if r equals the number of
+ *     unknown neighbors they are all mines;</li>
+ *     <li>pair: for two numbers at most two cells apart, if the mines one of them needs outside
+ *     the cells they share fill its exclusive cells exactly, those cells are mines and the other
+ *     number's exclusive cells are safe (this covers the subset rule).</li>
+ * </ul>
+ * Numbers to examine are kept on a work list; every deduction re-queues only the numbers next to
+ * the deduced cell, so the work done is proportional to what changed. Deductions are kept in
+ * bitsets and never rely on the player's flags.
+ */
+public class Solver {
+    private final BoardModel model;
+    private final int width;
+    private final int height;
+
+    private final long[] knownMines;    // Cells proven to contain a mine
+    private final long[] knownSafe;     // Cells proven to be safe
+    private final long[] queued;        // Numbers on the work list
+    private final IntList work;         // Numbers still to examine
+    private final IntList safeCells;    // Safe cells deduced since the last clearDeductions()
+    private final IntList mineCells;    // Mines deduced since the last clearDeductions()
+
+    // Scratch buffers for the unknown neighbors of the two constraints being compared
+    private final int[] unknownA = new int[8];
+    private final int[] unknownB = new int[8];
+
+    /**
+     * Constructs a solver for the given board.
+     *
+     * @param model The board to reason about.
+     */
+    public Solver(BoardModel model) {
+        this.model = model;
+        this.width = model.getWidth();
+        this.height = model.getHeight();
+        this.knownMines = Bits.create(model.getCells());
+        this.knownSafe = Bits.create(model.getCells());
+        this.queued = Bits.create(model.getCells());
+        this.work = new IntList();
+        this.safeCells = new IntList();
+        this.mineCells = new IntList();
+    }
+
+    /**
+     * Forgets all deductions and queues every revealed number on the board.
+     */
+    public void reset() {
+        Arrays.fill(this.knownMines, 0L);
+        Arrays.fill(this.knownSafe, 0L);
+        Arrays.fill(this.queued, 0L);
+        this.work.clear();
+        this.clearDeductions();
+
+        for (int i = 0; i < this.model.getCells(); i++) {
+            if (this.model.isRevealed(i)) {
+                this.enqueue(i);
+            }
+        }
+    }
+
+    /**
+     * Tells the solver that cells were revealed. The new numbers and the numbers next to them
+     * are queued for examination.
+     *
+     * @param opened The cells that were revealed.
+     */
+    public void cellsRevealed(IntList opened) {
+        for (int i = 0; i < opened.size(); i++) {
+            this.cellChanged(opened.get(i));
+        }
+    }
+
+    /**
+     * Tells the solver that a cell was revealed.
+     *
+     * @param index The cell that was revealed.
+     */
+    public void cellRevealed(int index) {
+        this.cellChanged(index);
+    }
+
+    /**
+     * Examines queued numbers until no rule makes further progress.
+     *
+     * @return True if at least one new safe cell or mine was found.
+     */
+    public boolean solve() {
+        int before = this.safeCells.size() + this.mineCells.size();
+        while (!this.work.isEmpty()) {
+            int cell = this.work.removeLast();
+            Bits.clear(this.queued, cell);
+            this.examine(cell);
+        }
+        return this.safeCells.size() + this.mineCells.size() > before;
+    }
+
+    /**
+     * Gets the safe cells found since the last {@link #clearDeductions()}. Some may have been
+     * revealed since.
+     *
+     * @return The safe cells, in the order they were found.
+     */
+    public IntList getSafeCells() {
+        return this.safeCells;
+    }
+
+    /**
+     * Gets the mines found since the last {@link #clearDeductions()}.
+     *
+     * @return The mines, in the order they were found.
+     */
+    public IntList getMineCells() {
+        return this.mineCells;
+    }
+
+    /**
+     * Empties the lists of new deductions. Known cells stay known.
+     */
+    public void clearDeductions() {
+        this.safeCells.clear();
+        this.mineCells.clear();
+    }
+
+    public boolean isKnownMine(int index) {
+        return Bits.get(this.knownMines, index);
+    }
+
+    public boolean isKnownSafe(int index) {
+        return Bits.get(this.knownSafe, index);
+    }
+
+    /**
+     * Applies the single cell rule, then the pair rule, to one revealed number.
+     */
+    private void examine(int a) {
+        if (!this.model.isRevealed(a) || this.model.hasMine(a)) {
+            return;
+        }
+        int sizeA = this.collectUnknown(a, this.unknownA);
+        if (sizeA == 0) {
+            return;
+        }
+        int minesA = this.remainingMines(a);
+
+        // Single cell rule
+        if (minesA == 0) {
+            this.markAll(this.unknownA, sizeA, false);
+            return;
+        }
+        if (minesA == sizeA) {
+            this.markAll(this.unknownA, sizeA, true);
+            return;
+        }
+
+        // Pair rule against every number within two cells
+        int row = a / width;
+        int col = a % width;
+        for (int r = Math.max(0, row - 2); r <= Math.min(height - 1, row + 2); r++) {
+            for (int c = Math.max(0, col - 2); c <= Math.min(width - 1, col + 2); c++) {
+                int b = r * width + c;
+                if (b == a || !this.model.isRevealed(b) || this.model.hasMine(b)) {
+                    continue;
+                }
+                int sizeB = this.collectUnknown(b, this.unknownB);
+                if (sizeB == 0) {
+                    continue;
+                }
+                int minesB = this.remainingMines(b);
+                if (this.applyPair(this.unknownA, sizeA, minesA, this.unknownB, sizeB, minesB)
+                        || this.applyPair(this.unknownB, sizeB, minesB, this.unknownA, sizeA, minesA)) {
+                    // A's unknown cells changed; it was re-queued by the deduction
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * If B needs exactly as many mines beyond A as it has cells outside A, those cells are
+     * mines and A's cells outside B are safe.
+     *
+     * @return True if anything was deduced.
+     */
+    private boolean applyPair(int[] a, int sizeA, int minesA, int[] b, int sizeB, int minesB) {
+        int onlyB = sizeB - this.countShared(a, sizeA, b, sizeB);
+        int onlyA = sizeA - (sizeB - onlyB);
+        if (onlyB == 0 && onlyA == 0 || minesB - minesA != onlyB) {
+            return false;
+        }
+
+        for (int i = 0; i < sizeB; i++) {
+            if (!contains(a, sizeA, b[i])) {
+                this.mark(b[i], true);
+            }
+        }
+        for (int i = 0; i < sizeA; i++) {
+            if (!contains(b, sizeB, a[i])) {
+                this.mark(a[i], false);
+            }
+        }
+        return true;
+    }
+
+    private int countShared(int[] a, int sizeA, int[] b, int sizeB) {
+        int shared = 0;
+        for (int i = 0; i < sizeB; i++) {
+            if (contains(a, sizeA, b[i])) {
+                shared++;
+            }
+        }
+        return shared;
+    }
+
+    private static boolean contains(int[] cells, int size, int cell) {
+        for (int i = 0; i < size; i++) {
+            if (cells[i] == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects the neighbors of a cell that are neither revealed nor known.
+     *
+     * @return The number of unknown neighbors.
+     */
+    private int collectUnknown(int index, int[] out) {
+        int row = index / width;
+        int col = index % width;
+        int n = 0;
+        for (int r = Math.max(0, row - 1); r <= Math.min(height - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(width - 1, col + 1); c++) {
+                int i = r * width + c;
+                if (i != index && this.isUnknown(i)) {
+                    out[n++] = i;
+                }
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Computes how many mines a number still needs among its unknown neighbors.
+     */
+    private int remainingMines(int index) {
+        int row = index / width;
+        int col = index % width;
+        int mines = this.model.getNeighborMineCount(index);
+        for (int r = Math.max(0, row - 1); r <= Math.min(height - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(width - 1, col + 1); c++) {
+                if (Bits.get(this.knownMines, r * width + c)) {
+                    mines--;
+                }
+            }
+        }
+        return mines;
+    }
+
+    private boolean isUnknown(int index) {
+        return !this.model.isRevealed(index) && !Bits.get(this.knownMines, index) && !Bits.get(this.knownSafe, index);
+    }
+
+    private void markAll(int[] cells, int size, boolean mine) {
+        for (int i = 0; i < size; i++) {
+            this.mark(cells[i], mine);
+        }
+    }
+
+    /**
+     * Records a deduction and re-queues the numbers whose constraints it changed.
+     */
+    private void mark(int index, boolean mine) {
+        if (!this.isUnknown(index)) {
+            return;
+        }
+        if (mine) {
+            Bits.set(this.knownMines, index);
+            this.mineCells.add(index);
+        } else {
+            Bits.set(this.knownSafe, index);
+            this.safeCells.add(index);
+        }
+        this.cellChanged(index);
+    }
+
+    /**
+     * Queues a cell, if it is a revealed number, and the revealed numbers around it.
+     */
+    private void cellChanged(int index) {
+        int row = index / width;
+        int col = index % width;
+        for (int r = Math.max(0, row - 1); r <= Math.min(height - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(width - 1, col + 1); c++) {
+                int i = r * width + c;
+                if (this.model.isRevealed(i)) {
+                    this.enqueue(i);
+                }
+            }
+        }
+    }
+
+    private void enqueue(int index) {
+        if (!Bits.get(this.queued, index)) {
+            Bits.set(this.queued, index);
+            this.work.add(index);
+        }
+    }
+}
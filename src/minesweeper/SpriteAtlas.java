@@ -0,0 +1,137 @@
+package minesweeper;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+
+import java.util.Map;
+
+/**
+ * Packs the game images into a single atlas image.
+ * Each sprite is addressed by an int id and drawn through a precomputed viewport, so a
+ * graphic can switch sprites by swapping its viewport without allocating anything.
+ */
+public class SpriteAtlas {
+    public static final int TILE = 0;
+    public static final int SAFE_TILE = 1;
+    public static final int FLAG = 2;
+    public static final int BOMB = 3;
+    public static final int NUMBER_0 = 4;   // Numbers 0 to 8 follow in order
+    public static final int YELLOW = 13;
+    public static final int GREEN = 14;
+    public static final int RED = 15;
+    public static final int TIMER = 16;
+    public static final int HINT_SAFE = 17; // Tile tinted green, for a cell deduced safe
+    public static final int HINT_MINE = 18; // Tile tinted red, for a cell deduced to be a mine
+
+    // Image keys of the sprites, in id order
+    private static final String[] KEYS = {
+            "tile", "safeTile", "flag", "bomb",
+            "0", "1", "2", "3", "4", "5", "6", "7", "8",
+            "yellow", "green", "red", "timer"
+    };
+    private static final int[] HINT_TINTS = {0x00C000, 0xE00000};   // Colors of the hint sprites, in id order
+
+    private final WritableImage image;  // All sprites side by side
+    private final Rectangle2D[] viewports;  // Area of each sprite in the atlas
+
+    /**
+     * Packs the given images into an atlas.
+     *
+     * @param images The loaded images, keyed as in {@link ImageCache#getImages()}.
+     */
+    public SpriteAtlas(Map<String, Image> images) {
+        int width = 0;
+        int height = 0;
+        for (String key : KEYS) {
+            width += (int) images.get(key).getWidth();
+            height = Math.max(height, (int) images.get(key).getHeight());
+        }
+        Image tile = images.get("tile");
+        width += HINT_TINTS.length * (int) tile.getWidth();
+
+        this.image = new WritableImage(width, height);
+        this.viewports = new Rectangle2D[KEYS.length + HINT_TINTS.length];
+        int x = 0;
+        for (int i = 0; i < KEYS.length; i++) {
+            Image sprite = images.get(KEYS[i]);
+            int w = (int) sprite.getWidth();
+            int h = (int) sprite.getHeight();
+            this.image.getPixelWriter().setPixels(x, 0, w, h, sprite.getPixelReader(), 0, 0);
+            this.viewports[i] = new Rectangle2D(x, 0, w, h);
+            x += w;
+        }
+
+        // The hint sprites are tinted copies of the tile
+        for (int t = 0; t < HINT_TINTS.length; t++) {
+            this.tint(tile, x, HINT_TINTS[t]);
+            this.viewports[KEYS.length + t] = new Rectangle2D(x, 0, tile.getWidth(), tile.getHeight());
+            x += (int) tile.getWidth();
+        }
+    }
+
+    /**
+     * Draws a copy of an image blended 40% towards a color, keeping its transparency.
+     */
+    private void tint(Image source, int x, int rgb) {
+        for (int py = 0; py < (int) source.getHeight(); py++) {
+            for (int px = 0; px < (int) source.getWidth(); px++) {
+                int argb = source.getPixelReader().getArgb(px, py);
+                int blended = argb & 0xFF000000;
+                for (int shift = 0; shift < 24; shift += 8) {
+                    int channel = (argb >>> shift) & 0xFF;
+                    int target = (rgb >>> shift) & 0xFF;
+                    blended |= ((channel * 3 + target * 2) / 5) << shift;
+                }
+                this.image.getPixelWriter().setArgb(x + px, py, blended);
+            }
+        }
+    }
+
+    /**
+     * Gets the sprite id of a number tile.
+     *
+     * @param count The number of neighboring mines.
+     * @return The sprite id.
+     */
+    public static int number(int count) {
+        return NUMBER_0 + count;
+    }
+
+    /**
+     * Creates a graphic showing a sprite. Change the sprite later with {@link #show(ImageView, int)}.
+     *
+     * @param sprite The sprite id.
+     * @return A new ImageView over the atlas.
+     */
+    public ImageView createView(int sprite) {
+        ImageView view = new ImageView(this.image);
+        this.show(view, sprite);
+        return view;
+    }
+
+    /**
+     * Switches a graphic created by {@link #createView(int)} to another sprite.
+     *
+     * @param view   The graphic.
+     * @param sprite The sprite id.
+     */
+    public void show(ImageView view, int sprite) {
+        view.setViewport(this.viewports[sprite]);
+    }
+
+    public Image getImage() {
+        return this.image;
+    }
+
+    /**
+     * Gets the area of a sprite in the atlas image.
+     *
+     * @param sprite The sprite id.
+     * @return The sprite's source rectangle.
+     */
+    public Rectangle2D getViewport(int sprite) {
+        return this.viewports[sprite];
+    }
+}
@@ -0,0 +1,576 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The application-wide store of finished games.
+ * <p>
+ * Every game is appended to {@code games.log} as a fixed-width record, so an append is one small
+ * write and a crash can at most lose a partial last record. Each difficulty has an index file
+ * holding its game and win counts, its streaks, and every win sorted by time. Index files are
+ * memory-mapped, and the games played since are kept sorted in memory, so best times,
+ * percentiles and ranks are answered by binary search over the two, in O(log n) however long the
+ * history grows.
+ * <p>
+ * Every {@value #COMPACT_EVERY} games the sorted wins in memory are merged with the mapped ones
+ * into a new index file, named after the number of log records it covers. The log is not read
+ * again: it is only read on start, from the oldest record an index does not cover. A new file
+ * never replaces a mapped one, since some platforms cannot; older files are deleted once they
+ * are no longer mapped, or on the next start.
+ * Like the rest of the UI, the store is used from the JavaFX thread only.
+ */
+public final class StatsStore {
+    public static final int EASY = 0;
+    public static final int MEDIUM = 1;
+    public static final int HARD = 2;
+    public static final int CUSTOM = 3;     // Any other size or mine count
+    public static final String[] NAMES = {Difficulty.EASY, Difficulty.MEDIUM, Difficulty.HARD, "Custom"};
+    public static final Path DIR = Paths.get(System.getProperty("user.home"), ".minesweeper", "stats");
+
+    // Record: difficulty, result, size, mines, elapsed ms, 3BV, seed, end time, reserved
+    private static final int RECORD_BYTES = 1 + 1 + 2 + 4 + 8 + 4 + 8 + 8 + 4;
+    private static final int COMPACT_EVERY = 256;   // Games appended between compactions
+    private static final int INDEX_MAGIC = 0x4D535358;  // "MSSX"
+    // Index header: magic, compacted records, games, wins, current streak, best streak, entries
+    private static final int INDEX_HEADER = 4 + 8 + 8 + 8 + 4 + 4 + 4;
+    private static final int ENTRY_BYTES = 16;  // Elapsed ms and seed of a win
+    private static final int CHUNK_BYTES = 64 * 1024;   // Bytes read from the log or written to an index at a time
+
+    private static StatsStore instance;
+
+    private final Path dir;
+    private final FileChannel log;
+    private final ByteBuffer record;
+    private final Index[] indexes;
+    private long records;   // Complete records in the log
+    private long pending;   // Records appended since the last compaction
+
+    /**
+     * Opens the store in a directory, creating it if needed, and catches up with games appended
+     * since the last compaction.
+     *
+     * @param dir The directory of the log and indexes.
+     * @throws IOException if the files cannot be opened.
+     */
+    public StatsStore(Path dir) throws IOException {
+        this.dir = dir;
+        Files.createDirectories(dir);
+        this.log = FileChannel.open(dir.resolve("games.log"), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.records = this.log.size() / RECORD_BYTES;
+        this.log.truncate(this.records * RECORD_BYTES);     // Drop a record cut short by a crash
+        this.record = ByteBuffer.allocate(RECORD_BYTES);
+
+        this.indexes = new Index[NAMES.length];
+        for (int d = 0; d < NAMES.length; d++) {
+            this.indexes[d] = new Index();
+            this.loadIndex(d);
+        }
+        this.readTail();
+        this.deleteStale();
+        if (this.pending >= COMPACT_EVERY) {
+            this.compact();
+        }
+    }
+
+    /**
+     * Gets the application-wide store in {@link #DIR}, opening it on first use.
+     *
+     * @return The store, or null if it cannot be opened.
+     */
+    public static StatsStore getInstance() {
+        if (instance == null) {
+            try {
+                instance = new StatsStore(DIR);
+            } catch (IOException e) {
+                System.err.println("Failed to open the statistics: " + e.getMessage());
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Finds the difficulty of a board from its size and mines.
+     *
+     * @param size  The size of the board.
+     * @param mines The number of mines.
+     * @return {@link #EASY}, {@link #MEDIUM}, {@link #HARD} or {@link #CUSTOM}.
+     */
+    public static int difficultyOf(int size, int mines) {
+        for (int d = EASY; d <= HARD; d++) {
+            int[] sizeAndMines = Difficulty.getSizeAndMines(NAMES[d]);
+            if (sizeAndMines[0] == size && sizeAndMines[1] == mines) {
+                return d;
+            }
+        }
+        return CUSTOM;
+    }
+
+    /**
+     * Appends a finished game, compacting the log when enough games were added.
+     *
+     * @param size          The size of the board.
+     * @param mines         The number of mines.
+     * @param elapsedMillis The game time in milliseconds.
+     * @param won           True if the game was won.
+     * @param threeBV       The 3BV of the board.
+     * @param seed          The seed of the mine layout.
+     * @throws IOException if the record cannot be written.
+     */
+    public void append(int size, int mines, long elapsedMillis, boolean won, int threeBV, long seed)
+            throws IOException {
+        int difficulty = difficultyOf(size, mines);
+        this.record.clear();
+        this.record.put((byte) difficulty).put((byte) (won ? BoardModel.WON : BoardModel.LOST))
+                .putShort((short) size).putInt(mines).putLong(elapsedMillis).putInt(threeBV).putLong(seed)
+                .putLong(System.currentTimeMillis()).putInt(0).flip();
+        long position = this.records * RECORD_BYTES;
+        while (this.record.hasRemaining()) {
+            position += this.log.write(this.record, position);
+        }
+        this.records++;
+        this.pending++;
+        this.indexes[difficulty].add(won, elapsedMillis, seed);
+
+        if (this.pending >= COMPACT_EVERY) {
+            this.compact();
+        }
+    }
+
+    public long getGames(int difficulty) {
+        return this.indexes[difficulty].games;
+    }
+
+    public long getWins(int difficulty) {
+        return this.indexes[difficulty].wins;
+    }
+
+    public int getCurrentStreak(int difficulty) {
+        return this.indexes[difficulty].currentStreak;
+    }
+
+    public int getBestStreak(int difficulty) {
+        return this.indexes[difficulty].bestStreak;
+    }
+
+    /**
+     * Gets the k-th fastest winning time.
+     *
+     * @param difficulty The difficulty.
+     * @param k          The rank, 0 for the best time.
+     * @return The time in milliseconds, or -1 if there are not that many wins.
+     */
+    public long getTime(int difficulty, long k) {
+        return this.indexes[difficulty].select(k);
+    }
+
+    /**
+     * Gets the winning time at a percentile, e.g. 50 for the median.
+     *
+     * @param difficulty The difficulty.
+     * @param percentile The percentile, between 0 and 100.
+     * @return The time in milliseconds, or -1 if there are no wins.
+     */
+    public long getPercentile(int difficulty, double percentile) {
+        long wins = this.getWins(difficulty);
+        long k = Math.max(0, (long) Math.ceil(percentile / 100 * wins) - 1);
+        return this.getTime(difficulty, Math.min(k, wins - 1));
+    }
+
+    /**
+     * Counts the wins faster than a time, e.g. to place a new time on the leaderboard.
+     *
+     * @param difficulty    The difficulty.
+     * @param elapsedMillis The time in milliseconds.
+     * @return The number of strictly faster wins.
+     */
+    public long getRank(int difficulty, long elapsedMillis) {
+        return this.indexes[difficulty].countBelow(elapsedMillis);
+    }
+
+    /**
+     * Gets the seed of the k-th fastest win, so it can be played again.
+     *
+     * @param difficulty The difficulty.
+     * @param k          The rank, 0 for the best time.
+     * @return The seed, or 0 if there are not that many wins.
+     */
+    public long getSeed(int difficulty, long k) {
+        return this.indexes[difficulty].selectSeed(k);
+    }
+
+    /**
+     * Maps the newest valid index file of a difficulty, if there is one. Files covering more
+     * records than the log holds, e.g. after the log was replaced, are ignored.
+     */
+    private void loadIndex(int difficulty) throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.dir, NAMES[difficulty].toLowerCase() + ".*.idx")) {
+            for (Path file : files) {
+                long covered = this.coveredBy(file, difficulty);
+                if (covered > 0 && covered <= this.records) {
+                    generations.add(covered);
+                }
+            }
+        }
+        generations.sort(Collections.reverseOrder());
+        for (long covered : generations) {
+            try (FileChannel channel = FileChannel.open(this.indexFile(difficulty, covered), StandardOpenOption.READ)) {
+                ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER);
+                while (header.hasRemaining() && channel.read(header) >= 0) {
+                    // Read until the header is full or the file ends
+                }
+                if (header.hasRemaining() || header.getInt(0) != INDEX_MAGIC || header.getLong(4) != covered
+                        || channel.size() != INDEX_HEADER + (long) header.getInt(36) * ENTRY_BYTES) {
+                    continue;
+                }
+                this.indexes[difficulty].load(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads the records no index covers, from the oldest one, in chunks.
+     */
+    private void readTail() throws IOException {
+        long from = this.records;
+        for (Index index : this.indexes) {
+            from = Math.min(from, index.covered);
+        }
+        ByteBuffer chunk = ByteBuffer.allocate(CHUNK_BYTES / RECORD_BYTES * RECORD_BYTES);
+        for (long r = from; r < this.records; ) {
+            chunk.clear().limit((int) Math.min(chunk.capacity(), (this.records - r) * RECORD_BYTES));
+            this.readFully(chunk, r * RECORD_BYTES);
+            for (int start = 0; start < chunk.limit(); start += RECORD_BYTES, r++) {
+                Index index = this.indexes[chunk.get(start)];
+                if (r >= index.covered) {
+                    index.append(chunk.get(start + 1) == BoardModel.WON, chunk.getLong(start + 8),
+                            chunk.getLong(start + 20));
+                    this.pending++;
+                }
+            }
+        }
+        for (Index index : this.indexes) {
+            index.sortTail();
+        }
+    }
+
+    /**
+     * Merges the wins in memory of every difficulty played since its last compaction into a new
+     * index file covering the whole log, and maps it. Each index is written in one sequential
+     * pass over its old file and its tail, without reading the log.
+     */
+    private void compact() throws IOException {
+        for (int d = 0; d < NAMES.length; d++) {
+            Index index = this.indexes[d];
+            if (index.added == 0) {
+                continue;
+            }
+            Path file = this.indexFile(d, this.records);
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                index.write(channel, this.records);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                index.load(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+        this.pending = 0;
+        this.deleteStale();
+    }
+
+    /**
+     * Deletes index and temporary files other than the current ones. A file that cannot be
+     * deleted yet, e.g. because the platform still holds an old mapping, is left for a later start.
+     */
+    private void deleteStale() throws IOException {
+        Set<Path> current = new HashSet<>();
+        for (int d = 0; d < NAMES.length; d++) {
+            current.add(this.indexFile(d, this.indexes[d].covered));
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.dir, "*.{idx,tmp}")) {
+            for (Path file : files) {
+                if (!current.contains(file)) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        // Still mapped; deleted on a later start
+                    }
+                }
+            }
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (this.log.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Statistics log is shorter than expected");
+            }
+        }
+    }
+
+    private Path indexFile(int difficulty, long covered) {
+        return this.dir.resolve(NAMES[difficulty].toLowerCase() + "." + covered + ".idx");
+    }
+
+    /**
+     * Parses the number of records an index file of a difficulty covers from its name.
+     *
+     * @return The number of records, or -1 if the name is not that of an index file.
+     */
+    private long coveredBy(Path file, int difficulty) {
+        String name = file.getFileName().toString();
+        String prefix = NAMES[difficulty].toLowerCase() + ".";
+        try {
+            return Long.parseLong(name.substring(prefix.length(), name.length() - ".idx".length()));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * The statistics of one difficulty: a mapped index of compacted wins sorted by time, plus the
+     * wins appended since, kept sorted in memory.
+     */
+    private static final class Index {
+        private MappedByteBuffer mapped;    // Compacted wins, or null
+        private long covered;   // Log records the mapped index covers
+        private int indexed;    // Wins in the mapped index
+        private int added;  // Games added since the mapped index
+        private long[] tailTimes = new long[16];    // Later wins, sorted by time
+        private long[] tailSeeds = new long[16];
+        private int tailSize;
+
+        private long games;
+        private long wins;
+        private int currentStreak;
+        private int bestStreak;
+
+        /**
+         * Replaces everything with a mapped index file, which must include the wins in the tail.
+         */
+        void load(MappedByteBuffer buffer) {
+            this.mapped = buffer;
+            this.covered = buffer.getLong(4);
+            this.games = buffer.getLong(12);
+            this.wins = buffer.getLong(20);
+            this.currentStreak = buffer.getInt(28);
+            this.bestStreak = buffer.getInt(32);
+            this.indexed = buffer.getInt(36);
+            this.added = 0;
+            this.tailSize = 0;
+        }
+
+        /**
+         * Writes the mapped wins merged with the tail as a new index file. Equal times keep the
+         * order they were played in, the mapped ones being older.
+         */
+        void write(FileChannel channel, long covered) throws IOException {
+            ByteBuffer chunk = ByteBuffer.allocate(CHUNK_BYTES);
+            chunk.putInt(INDEX_MAGIC).putLong(covered).putLong(this.games).putLong(this.wins)
+                    .putInt(this.currentStreak).putInt(this.bestStreak).putInt(this.indexed + this.tailSize);
+            int i = 0;
+            int j = 0;
+            while (i < this.indexed || j < this.tailSize) {
+                if (chunk.remaining() < ENTRY_BYTES) {
+                    flush(channel, chunk);
+                }
+                if (j == this.tailSize || i < this.indexed && this.time(i) <= this.tailTimes[j]) {
+                    chunk.putLong(this.time(i)).putLong(this.seed(i));
+                    i++;
+                } else {
+                    chunk.putLong(this.tailTimes[j]).putLong(this.tailSeeds[j]);
+                    j++;
+                }
+            }
+            flush(channel, chunk);
+        }
+
+        private static void flush(FileChannel channel, ByteBuffer chunk) throws IOException {
+            chunk.flip();
+            while (chunk.hasRemaining()) {
+                channel.write(chunk);
+            }
+            chunk.clear();
+        }
+
+        /**
+         * Adds a game played after the last compaction, keeping the tail sorted.
+         */
+        void add(boolean won, long elapsed, long seed) {
+            if (!this.count(won)) {
+                return;
+            }
+            this.grow();
+            int at = upperBound(this.tailTimes, this.tailSize, elapsed);
+            System.arraycopy(this.tailTimes, at, this.tailTimes, at + 1, this.tailSize - at);
+            System.arraycopy(this.tailSeeds, at, this.tailSeeds, at + 1, this.tailSize - at);
+            this.tailTimes[at] = elapsed;
+            this.tailSeeds[at] = seed;
+            this.tailSize++;
+        }
+
+        /**
+         * Adds a game read from the log at the end of the tail; {@link #sortTail()} must be called
+         * after the last one.
+         */
+        void append(boolean won, long elapsed, long seed) {
+            if (!this.count(won)) {
+                return;
+            }
+            this.grow();
+            this.tailTimes[this.tailSize] = elapsed;
+            this.tailSeeds[this.tailSize] = seed;
+            this.tailSize++;
+        }
+
+        /**
+         * Sorts the tail by time, carrying the position in the low bits so equal times keep the
+         * order they were played in.
+         */
+        void sortTail() {
+            long[] keys = new long[this.tailSize];
+            for (int i = 0; i < this.tailSize; i++) {
+                keys[i] = (this.tailTimes[i] << 28) | i;
+            }
+            Arrays.sort(keys);
+            long[] times = new long[this.tailTimes.length];
+            long[] seeds = new long[this.tailSeeds.length];
+            for (int i = 0; i < this.tailSize; i++) {
+                int from = (int) (keys[i] & 0xFFFFFFF);
+                times[i] = this.tailTimes[from];
+                seeds[i] = this.tailSeeds[from];
+            }
+            this.tailTimes = times;
+            this.tailSeeds = seeds;
+        }
+
+        /**
+         * Updates the counters and streaks with a game.
+         *
+         * @return True if the game was won, so its time goes into the tail.
+         */
+        private boolean count(boolean won) {
+            this.games++;
+            this.added++;
+            if (!won) {
+                this.currentStreak = 0;
+                return false;
+            }
+            this.wins++;
+            this.bestStreak = Math.max(this.bestStreak, ++this.currentStreak);
+            return true;
+        }
+
+        private void grow() {
+            if (this.tailSize == this.tailTimes.length) {
+                this.tailTimes = Arrays.copyOf(this.tailTimes, this.tailSize << 1);
+                this.tailSeeds = Arrays.copyOf(this.tailSeeds, this.tailSize << 1);
+            }
+        }
+
+        private long time(int i) {
+            return this.mapped.getLong(INDEX_HEADER + i * ENTRY_BYTES);
+        }
+
+        private long seed(int i) {
+            return this.mapped.getLong(INDEX_HEADER + i * ENTRY_BYTES + 8);
+        }
+
+        long select(long k) {
+            int[] split = this.split(k);
+            if (split == null) {
+                return -1;
+            }
+            long fromIndex = split[0] > 0 ? this.time(split[0] - 1) : Long.MIN_VALUE;
+            long fromTail = split[1] > 0 ? this.tailTimes[split[1] - 1] : Long.MIN_VALUE;
+            return Math.max(fromIndex, fromTail);
+        }
+
+        long selectSeed(long k) {
+            int[] split = this.split(k);
+            if (split == null) {
+                return 0;
+            }
+            long fromIndex = split[0] > 0 ? this.time(split[0] - 1) : Long.MIN_VALUE;
+            long fromTail = split[1] > 0 ? this.tailTimes[split[1] - 1] : Long.MIN_VALUE;
+            return fromIndex >= fromTail ? this.seed(split[0] - 1) : this.tailSeeds[split[1] - 1];
+        }
+
+        /**
+         * Finds how many of the k + 1 fastest wins come from the index and how many from the tail,
+         * by binary search over the index's share.
+         *
+         * @return The two counts, or null if there are not k + 1 wins.
+         */
+        private int[] split(long k) {
+            if (k < 0 || k >= (long) this.indexed + this.tailSize) {
+                return null;
+            }
+            int take = (int) k + 1;
+            int low = Math.max(0, take - this.tailSize);
+            int high = Math.min(take, this.indexed);
+            while (true) {
+                int i = (low + high) >>> 1;
+                int j = take - i;
+                if (i < this.indexed && j > 0 && this.tailTimes[j - 1] > this.time(i)) {
+                    low = i + 1;
+                } else if (i > 0 && j < this.tailSize && this.time(i - 1) > this.tailTimes[j]) {
+                    high = i - 1;
+                } else {
+                    return new int[]{i, j};
+                }
+            }
+        }
+
+        long countBelow(long elapsed) {
+            int low = 0;
+            int high = this.indexed;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (this.time(middle) < elapsed) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            int tail = 0;
+            while (tail < this.tailSize && this.tailTimes[tail] < elapsed) {
+                tail++;
+            }
+            return low + tail;
+        }
+
+        private static int upperBound(long[] values, int size, long value) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (values[middle] <= value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package minesweeper;
+
+import java.util.SplittableRandom;
+
+/**
+ * A way of playing a board headlessly, used by the {@link Simulator}.
+ */
+public interface Strategy {
+
+    /**
+     * Plays a game until it is won or lost.
+     *
+     * @param player The auto-player of the board; the first cell was opened through it.
+     * @param model  The board being played.
+     * @param random The random generator of this game.
+     * @return The number of guesses made.
+     */
+    int play(AutoPlayer player, BoardModel model, SplittableRandom random);
+
+    /**
+     * Clicks random unrevealed cells.
+     */
+    Strategy RANDOM = (player, model, random) -> {
+        int guesses = 0;
+        while (model.getState() == BoardModel.IN_PROGRESS) {
+            player.open(randomUnknown(player, model, random));
+            guesses++;
+        }
+        return guesses;
+    };
+
+    /**
+     * Applies the solver's deductions and clicks a random unknown cell when stuck.
+     */
+    Strategy SOLVER = (player, model, random) -> {
+        int guesses = 0;
+        while (player.playDeductions() == BoardModel.IN_PROGRESS) {
+            player.open(randomUnknown(player, model, random));
+            guesses++;
+        }
+        return guesses;
+    };
+
+    /**
+     * Applies the solver's deductions and clicks the cell least likely to be a mine when stuck.
+     */
+    Strategy PROBABILITY = (player, model, random) -> {
+        ProbabilityEngine engine = new ProbabilityEngine();
+        int guesses = 0;
+        while (player.playDeductions() == BoardModel.IN_PROGRESS) {
+            double[] probabilities = engine.compute(model);
+            int best = -1;
+            for (int i = 0; i < probabilities.length; i++) {
+                if (!model.isRevealed(i) && !player.getSolver().isKnownMine(i)
+                        && (best < 0 || probabilities[i] < probabilities[best])) {
+                    best = i;
+                }
+            }
+            player.open(best >= 0 ? best : randomUnknown(player, model, random));
+            guesses++;
+        }
+        return guesses;
+    };
+
+    /**
+     * Looks up a strategy by name.
+     *
+     * @param name "random", "solver" or "probability".
+     * @return The strategy.
+     * @throws IllegalArgumentException if the name is unknown.
+     */
+    static Strategy forName(String name) {
+        return switch (name) {
+            case "random" -> RANDOM;
+            case "solver" -> SOLVER;
+            case "probability" -> PROBABILITY;
+            default -> throw new IllegalArgumentException("Unknown strategy: " + name);
+        };
+    }
+
+    /**
+     * Picks a random cell that is neither revealed nor a known mine.
+     */
+    private static int randomUnknown(AutoPlayer player, BoardModel model, SplittableRandom random) {
+        for (int tries = 0; tries < 64; tries++) {
+            int cell = random.nextInt(model.getCells());
+            if (!model.isRevealed(cell) && !player.getSolver().isKnownMine(cell)) {
+                return cell;
+            }
+        }
+        // Few unknown cells left: pick among them uniformly
+        IntList unknown = new IntList();
+        for (int i = 0; i < model.getCells(); i++) {
+            if (!model.isRevealed(i) && !player.getSolver().isKnownMine(i)) {
+                unknown.add(i);
+            }
+        }
+        return unknown.get(random.nextInt(unknown.size()));
+    }
+}
@@ -0,0 +1,164 @@
+package minesweeper;
+
+/**
+ * Multi-level undo and redo of reveal and flag actions, stored as per-action deltas.
+ * An action records only the cells it changed, packed into one shared int list: a reveal or
+ * chord stores every cell it opened, with the ones that lost a flag stored complemented, and a
+ * flag stores its cell. Memory therefore grows with the cells the actions touched, not with the
+ * size of the board, and undoing or redoing an action costs time proportional to its delta.
+ * Taking a new action after undoing drops the actions that could have been redone.
+ */
+public class UndoHistory {
+    private static final int REVEAL = 0;
+    private static final int FLAG = 1;
+
+    private final BoardModel model;
+    private final IntList cells;    // Changed cells of every action, one action after another
+    private final IntList ends;     // End of each action's cells in the cells list
+    private final IntList kinds;    // Kind of each action
+    private final IntList changed;  // Cells changed by the last undo or redo
+    private int applied;    // Actions currently applied; those after it can be redone
+
+    /**
+     * Constructs an empty history for a board.
+     *
+     * @param model The board the actions are applied to.
+     */
+    public UndoHistory(BoardModel model) {
+        this.model = model;
+        this.cells = new IntList();
+        this.ends = new IntList();
+        this.kinds = new IntList();
+        this.changed = new IntList();
+    }
+
+    /**
+     * Records a reveal or chord after it was applied.
+     *
+     * @param opened    The cells it opened.
+     * @param unflagged The opened cells that had a flag.
+     */
+    public void recordReveal(IntList opened, IntList unflagged) {
+        if (opened.isEmpty()) {
+            return;
+        }
+        this.dropRedo();
+        // Both lists are in opening order, so one pass finds the unflagged cells
+        int next = 0;
+        for (int i = 0; i < opened.size(); i++) {
+            int cell = opened.get(i);
+            if (next < unflagged.size() && unflagged.get(next) == cell) {
+                this.cells.add(~cell);
+                next++;
+            } else {
+                this.cells.add(cell);
+            }
+        }
+        this.push(REVEAL);
+    }
+
+    /**
+     * Records a flag being placed or removed after it was applied.
+     *
+     * @param index The index of the cell.
+     */
+    public void recordFlag(int index) {
+        this.dropRedo();
+        this.cells.add(index);
+        this.push(FLAG);
+    }
+
+    /**
+     * Reverts the last applied action.
+     *
+     * @return True if an action was undone.
+     */
+    public boolean undo() {
+        this.changed.clear();
+        if (this.applied == 0) {
+            return false;
+        }
+        this.applied--;
+        int from = this.applied == 0 ? 0 : this.ends.get(this.applied - 1);
+        int to = this.ends.get(this.applied);
+        for (int k = from; k < to; k++) {
+            int entry = this.cells.get(k);
+            int cell = entry < 0 ? ~entry : entry;
+            if (this.kinds.get(this.applied) == FLAG) {
+                this.model.setFlagged(cell, !this.model.isFlagged(cell));
+            } else {
+                this.model.hide(cell);
+                if (entry < 0) {
+                    this.model.setFlagged(cell, true);
+                }
+            }
+            this.changed.add(cell);
+        }
+        return true;
+    }
+
+    /**
+     * Applies the last undone action again.
+     *
+     * @return True if an action was redone.
+     */
+    public boolean redo() {
+        this.changed.clear();
+        if (this.applied == this.ends.size()) {
+            return false;
+        }
+        int from = this.applied == 0 ? 0 : this.ends.get(this.applied - 1);
+        int to = this.ends.get(this.applied);
+        for (int k = from; k < to; k++) {
+            int entry = this.cells.get(k);
+            int cell = entry < 0 ? ~entry : entry;
+            if (this.kinds.get(this.applied) == FLAG) {
+                this.model.setFlagged(cell, !this.model.isFlagged(cell));
+            } else {
+                this.model.reveal(cell);
+            }
+            this.changed.add(cell);
+        }
+        this.applied++;
+        return true;
+    }
+
+    /**
+     * Forgets every action, e.g. when a new game starts.
+     */
+    public void clear() {
+        this.cells.clear();
+        this.ends.clear();
+        this.kinds.clear();
+        this.applied = 0;
+    }
+
+    /**
+     * Gets the cells changed by the last call to {@link #undo()} or {@link #redo()}.
+     *
+     * @return The changed cells. The list is reused by the next call.
+     */
+    public IntList getChanged() {
+        return this.changed;
+    }
+
+    public boolean canUndo() {
+        return this.applied > 0;
+    }
+
+    public boolean canRedo() {
+        return this.applied < this.ends.size();
+    }
+
+    private void push(int kind) {
+        this.ends.add(this.cells.size());
+        this.kinds.add(kind);
+        this.applied++;
+    }
+
+    private void dropRedo() {
+        this.cells.truncate(this.applied == 0 ? 0 : this.ends.get(this.applied - 1));
+        this.ends.truncate(this.applied);
+        this.kinds.truncate(this.applied);
+    }
+}
@@ -0,0 +1,115 @@
+package minesweeper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks {@link BoardAnalyzer} on small boards whose 3BV, openings, islands and ideal clicks are
+ * worked out by hand, and its 3BV on random boards against a plain flood-fill count.
+ */
+class BoardAnalyzerTest {
+
+    @Test
+    void boardWithoutMinesIsOneOpening() {
+        assertAnalysis(board(3, 3), 1, 1, new int[0], 1);
+    }
+
+    @Test
+    void borderNumbersBelongToTheirOpening() {
+        // * 1 .
+        // 1 1 .   with the mine in the corner, every number touches the opening
+        // . . .
+        assertAnalysis(board(3, 3, 0), 1, 1, new int[0], 1);
+    }
+
+    @Test
+    void numbersSplitOpenings() {
+        // . . 1 * 1 . .
+        assertAnalysis(board(7, 1, 3), 2, 2, new int[0], 2);
+    }
+
+    @Test
+    void numbersAroundOneMineFormOneIsland() {
+        // Eight numbers around the middle mine, with no opening: one click each without flags.
+        // Flagging the mine and chording the top middle 1 opens five of them for three clicks,
+        // chording the left 1 two more for one click, and the last is clicked: 5 clicks.
+        assertAnalysis(board(3, 3, 4), 8, 0, new int[]{8}, 5);
+    }
+
+    @Test
+    void separatedNumbersAreSeparateIslands() {
+        // 1 * 2 * 1
+        assertAnalysis(board(5, 1, 1, 3), 3, 0, new int[]{1, 1, 1}, 3);
+    }
+
+    @Test
+    void islandsAndOpeningsAddUp() {
+        // * 1 1 * 1 .   one opening, with the 1 next to it, and an island of two
+        assertAnalysis(board(6, 1, 0, 3), 3, 1, new int[]{2}, 3);
+    }
+
+    @Test
+    void matchesFloodFillOnRandomBoards() {
+        BoardAnalyzer analyzer = new BoardAnalyzer();
+        int[][] configurations = {{9, 9, 10}, {16, 16, 40}, {30, 16, 99}, {50, 20, 100}};
+        for (int[] configuration : configurations) {
+            for (int seed = 0; seed < 200; seed++) {
+                BoardModel model = new BoardModel(configuration[0], configuration[1], configuration[2]);
+                model.placeMines(MinePlacer.place(configuration[0], configuration[1], configuration[2], seed));
+                analyzer.analyze(model);
+
+                String message = configuration[0] + "x" + configuration[1] + " seed " + seed;
+                assertEquals(floodFillThreeBV(model), analyzer.getThreeBV(), message);
+                int islandCells = 0;
+                for (int size : analyzer.getIslandSizes().toArray()) {
+                    islandCells += size;
+                }
+                assertEquals(analyzer.getThreeBV(), analyzer.getOpenings() + islandCells, message);
+                assertTrue(analyzer.getIdealClicks() <= analyzer.getThreeBV(), message);
+            }
+        }
+    }
+
+    private static BoardModel board(int width, int height, int... mines) {
+        BoardModel model = new BoardModel(width, height, mines.length);
+        model.placeMines(mines);
+        return model;
+    }
+
+    private static void assertAnalysis(BoardModel model, int threeBV, int openings, int[] islandSizes,
+                                       int idealClicks) {
+        BoardAnalyzer analyzer = new BoardAnalyzer();
+        analyzer.analyze(model);
+        assertEquals(threeBV, analyzer.getThreeBV(), "3BV");
+        assertEquals(openings, analyzer.getOpenings(), "openings");
+        assertEquals(islandSizes.length, analyzer.getIslands(), "islands");
+        assertArrayEquals(islandSizes, analyzer.getIslandSizes().toArray(), "island sizes");
+        assertEquals(idealClicks, analyzer.getIdealClicks(), "ideal clicks");
+    }
+
+    /**
+     * Counts 3BV the way it is defined: one click per opening, found by revealing it on a copy of
+     * the board, then one per safe cell still hidden.
+     */
+    private static int floodFillThreeBV(BoardModel model) {
+        BoardModel copy = new BoardModel(model.getWidth(), model.getHeight(), model.getMines());
+        copy.placeMines(model.getMineBits());
+        FloodFill floodFill = new FloodFill(copy);
+        int clicks = 0;
+        for (int i = 0; i < copy.getCells(); i++) {
+            if (!copy.hasMine(i) && copy.getNeighborMineCount(i) == 0 && !copy.isRevealed(i)) {
+                floodFill.open(i);
+                clicks++;
+            }
+        }
+        for (int i = 0; i < copy.getCells(); i++) {
+            if (!copy.hasMine(i) && !copy.isRevealed(i)) {
+                clicks++;
+            }
+        }
+        return clicks;
+    }
+}
@@ -0,0 +1,257 @@
+package minesweeper;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks {@link ProbabilityEngine} against brute force. On small boards every mine layout that
+ * agrees with the revealed numbers is enumerated. On larger frontiers, whose components are
+ * forked into subtasks, every frontier configuration is enumerated instead and weighted by the
+ * exact number of ways to place the remaining mines away from the frontier.
+ */
+class ProbabilityEngineTest {
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    void matchesEveryLayoutOnSmallBoards() {
+        ProbabilityEngine engine = new ProbabilityEngine();
+        for (int seed = 0; seed < 60; seed++) {
+            BoardModel model = openBoard(6, 5, 5, seed);
+            assertProbabilities(enumerateLayouts(model), engine.compute(model), "seed " + seed);
+        }
+    }
+
+    @Test
+    void matchesFrontierEnumerationOnLargeFrontiers() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ProbabilityEngine engine = new ProbabilityEngine(pool);
+            int checked = 0;
+            for (int seed = 0; seed < 500 && checked < 8; seed++) {
+                BoardModel model = openBoard(9, 9, 12, seed);
+                int[] frontier = frontier(model);
+                // Large enough for the search to fork, small enough to enumerate
+                if (frontier.length < 16 || frontier.length > 20) {
+                    continue;
+                }
+                checked++;
+                assertProbabilities(enumerateFrontier(model, frontier), engine.compute(model), "seed " + seed);
+            }
+            assertTrue(checked > 0, "No board had a frontier of 16 to 20 cells");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Places mines from a seed, opens the middle cell and one more random safe cell.
+     */
+    private static BoardModel openBoard(int width, int height, int mines, long seed) {
+        BoardModel model = new BoardModel(width, height, mines);
+        int start = model.index(height / 2, width / 2);
+        model.placeMines(MinePlacer.place(width, height, mines, start, seed));
+        FloodFill floodFill = new FloodFill(model);
+        floodFill.open(start);
+
+        SplittableRandom random = new SplittableRandom(seed);
+        int cell = random.nextInt(model.getCells());
+        if (!model.hasMine(cell)) {
+            floodFill.open(cell);
+        }
+        return model;
+    }
+
+    private static void assertProbabilities(double[] expected, double[] actual, String message) {
+        assertEquals(expected.length, actual.length, message);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], actual[i], EPSILON, message + ", cell " + i);
+        }
+    }
+
+    /**
+     * Computes the probabilities by trying every placement of the mines on the unrevealed cells.
+     */
+    private static double[] enumerateLayouts(BoardModel model) {
+        IntList unrevealed = new IntList();
+        for (int i = 0; i < model.getCells(); i++) {
+            if (!model.isRevealed(i)) {
+                unrevealed.add(i);
+            }
+        }
+        long[] hits = new long[model.getCells()];
+        long[] total = new long[1];
+        choose(model, unrevealed.toArray(), 0, model.getMines(), new boolean[model.getCells()], hits, total);
+
+        double[] probabilities = new double[model.getCells()];
+        for (int i = 0; i < probabilities.length; i++) {
+            probabilities[i] = (double) hits[i] / total[0];
+        }
+        return probabilities;
+    }
+
+    private static void choose(BoardModel model, int[] cells, int from, int left, boolean[] mine, long[] hits,
+                               long[] total) {
+        if (left == 0) {
+            if (agrees(model, mine)) {
+                total[0]++;
+                for (int i = 0; i < mine.length; i++) {
+                    hits[i] += mine[i] ? 1 : 0;
+                }
+            }
+            return;
+        }
+        for (int i = from; i <= cells.length - left; i++) {
+            mine[cells[i]] = true;
+            choose(model, cells, i + 1, left - 1, mine, hits, total);
+            mine[cells[i]] = false;
+        }
+    }
+
+    /**
+     * Checks that a placement gives every revealed cell the number it shows.
+     */
+    private static boolean agrees(BoardModel model, boolean[] mine) {
+        for (int i = 0; i < model.getCells(); i++) {
+            if (!model.isRevealed(i)) {
+                continue;
+            }
+            int count = 0;
+            for (int neighbor : neighbors(model, i)) {
+                count += mine[neighbor] ? 1 : 0;
+            }
+            if (count != model.getNeighborMineCount(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the probabilities by trying every configuration of the frontier, each weighted by
+     * C(others, mines - frontier mines) in exact arithmetic.
+     */
+    private static double[] enumerateFrontier(BoardModel model, int[] frontier) {
+        int cells = model.getCells();
+        int[] position = new int[cells];
+        for (int j = 0; j < frontier.length; j++) {
+            position[frontier[j]] = j + 1;
+        }
+
+        // One constraint per revealed number touching the frontier: a mask of its frontier cells
+        IntList masks = new IntList();
+        IntList needs = new IntList();
+        int unrevealed = 0;
+        for (int i = 0; i < cells; i++) {
+            if (!model.isRevealed(i)) {
+                unrevealed++;
+                continue;
+            }
+            int mask = 0;
+            for (int neighbor : neighbors(model, i)) {
+                if (position[neighbor] > 0) {
+                    mask |= 1 << (position[neighbor] - 1);
+                }
+            }
+            if (mask != 0) {
+                masks.add(mask);
+                needs.add(model.getNeighborMineCount(i));
+            }
+        }
+        int others = unrevealed - frontier.length;
+        int mines = model.getMines();
+
+        // Consistent configurations and mines per frontier cell, by number of frontier mines
+        long[] counts = new long[frontier.length + 1];
+        long[][] hits = new long[frontier.length + 1][frontier.length];
+        for (int configuration = 0; configuration < 1 << frontier.length; configuration++) {
+            boolean consistent = true;
+            for (int c = 0; c < masks.size() && consistent; c++) {
+                consistent = Integer.bitCount(configuration & masks.get(c)) == needs.get(c);
+            }
+            if (!consistent) {
+                continue;
+            }
+            int k = Integer.bitCount(configuration);
+            counts[k]++;
+            for (int j = 0; j < frontier.length; j++) {
+                hits[k][j] += configuration >>> j & 1;
+            }
+        }
+
+        BigInteger total = BigInteger.ZERO;
+        BigInteger otherMines = BigInteger.ZERO;
+        BigInteger[] frontierMines = new BigInteger[frontier.length];
+        Arrays.fill(frontierMines, BigInteger.ZERO);
+        for (int k = 0; k <= frontier.length; k++) {
+            if (counts[k] == 0 || k > mines || mines - k > others) {
+                continue;
+            }
+            BigInteger weight = binomial(others, mines - k);
+            total = total.add(weight.multiply(BigInteger.valueOf(counts[k])));
+            otherMines = otherMines.add(weight.multiply(BigInteger.valueOf(counts[k] * (mines - k))));
+            for (int j = 0; j < frontier.length; j++) {
+                frontierMines[j] = frontierMines[j].add(weight.multiply(BigInteger.valueOf(hits[k][j])));
+            }
+        }
+
+        double[] probabilities = new double[cells];
+        double other = others > 0 ? divide(otherMines, total.multiply(BigInteger.valueOf(others))) : 0;
+        for (int i = 0; i < cells; i++) {
+            if (!model.isRevealed(i)) {
+                probabilities[i] = position[i] > 0 ? divide(frontierMines[position[i] - 1], total) : other;
+            }
+        }
+        return probabilities;
+    }
+
+    private static int[] frontier(BoardModel model) {
+        IntList frontier = new IntList();
+        for (int i = 0; i < model.getCells(); i++) {
+            if (model.isRevealed(i)) {
+                continue;
+            }
+            for (int neighbor : neighbors(model, i)) {
+                if (model.isRevealed(neighbor)) {
+                    frontier.add(i);
+                    break;
+                }
+            }
+        }
+        return frontier.toArray();
+    }
+
+    private static int[] neighbors(BoardModel model, int index) {
+        int row = index / model.getWidth();
+        int col = index % model.getWidth();
+        IntList neighbors = new IntList();
+        for (int r = row - 1; r <= row + 1; r++) {
+            for (int c = col - 1; c <= col + 1; c++) {
+                if ((r != row || c != col) && model.contains(r, c)) {
+                    neighbors.add(model.index(r, c));
+                }
+            }
+        }
+        return neighbors.toArray();
+    }
+
+    private static BigInteger binomial(int n, int k) {
+        BigInteger result = BigInteger.ONE;
+        for (int i = 0; i < k; i++) {
+            result = result.multiply(BigInteger.valueOf(n - i)).divide(BigInteger.valueOf(i + 1));
+        }
+        return result;
+    }
+
+    private static double divide(BigInteger numerator, BigInteger denominator) {
+        return new BigDecimal(numerator).divide(new BigDecimal(denominator), MathContext.DECIMAL64).doubleValue();
+    }
+}